@@ -10,6 +10,9 @@
 import java.io.InputStreamReader;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 import org.h2.command.CommandInterface;
 import org.h2.command.Prepared;
@@ -17,6 +20,7 @@
 import org.h2.message.DbException;
 import org.h2.result.ResultInterface;
 import org.h2.util.ScriptReader;
+import org.h2.util.Task;
 
 /**
  * This class represents the statement
@@ -31,6 +35,23 @@ public class RunScriptCommand extends ScriptBase {
      */
     private static final char UTF8_BOM = '\uFEFF';
 
+    /**
+     * The maximum number of statements that are read ahead.
+     */
+    private static final int READ_AHEAD = 256;
+
+    /**
+     * The maximum number of characters of the statements that are read
+     * ahead. A longer statement is read ahead only if no other statements
+     * are waiting.
+     */
+    private static final int READ_AHEAD_CHARS = 4 * 1024 * 1024;
+
+    /**
+     * Marks the end of the script in the queue of statements.
+     */
+    private static final Object END = new Object();
+
     private Charset charset = StandardCharsets.UTF_8;
 
     public RunScriptCommand(Session session) {
@@ -50,18 +71,70 @@ public int update() {
                 reader.reset();
             }
             ScriptReader r = new ScriptReader(reader);
-            while (true) {
-                String sql = r.readStatement();
-                if (sql == null) {
-                    break;
+            // read and split the script (and decompress it, if needed) in a
+            // separate thread while the statements are executed
+            ArrayBlockingQueue<Object> queue = new ArrayBlockingQueue<>(READ_AHEAD);
+            Semaphore chars = new Semaphore(READ_AHEAD_CHARS);
+            Task readTask = new Task() {
+                @Override
+                public void call() throws Exception {
+                    try {
+                        String sql;
+                        do {
+                            sql = r.readStatement();
+                        } while (sql != null && acquire(getCharCount(sql)) && offer(sql));
+                    } finally {
+                        offer(END);
+                    }
+                }
+
+                private boolean acquire(int charCount) throws InterruptedException {
+                    while (!stop) {
+                        if (chars.tryAcquire(charCount, 100, TimeUnit.MILLISECONDS)) {
+                            return true;
+                        }
+                    }
+                    return false;
+                }
+
+                private boolean offer(Object o) throws InterruptedException {
+                    while (!stop) {
+                        if (queue.offer(o, 100, TimeUnit.MILLISECONDS)) {
+                            return true;
+                        }
+                    }
+                    return false;
                 }
-                execute(sql);
-                count++;
-                if ((count & 127) == 0) {
-                    checkCanceled();
+            }.execute();
+            try {
+                while (true) {
+                    Object o = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (o == null) {
+                        checkCanceled();
+                        continue;
+                    } else if (o == END) {
+                        break;
+                    }
+                    String sql = (String) o;
+                    chars.release(getCharCount(sql));
+                    execute(sql);
+                    count++;
+                    if ((count & 127) == 0) {
+                        checkCanceled();
+                    }
                 }
+            } catch (InterruptedException e) {
+                throw DbException.convert(e);
+            } finally {
+                readTask.join();
+                r.close();
+            }
+            Exception e = readTask.getException();
+            if (e instanceof IOException) {
+                throw (IOException) e;
+            } else if (e != null) {
+                throw DbException.convert(e);
             }
-            r.close();
         } catch (IOException e) {
             throw DbException.convertIOException(e, null);
         } finally {
@@ -70,6 +143,10 @@ public int update() {
         return count;
     }
 
+    private static int getCharCount(String sql) {
+        return Math.min(sql.length(), READ_AHEAD_CHARS);
+    }
+
     private void execute(String sql) {
         try {
             Prepared command = session.prepare(sql);
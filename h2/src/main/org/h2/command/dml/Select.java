@@ -364,7 +364,7 @@ private Index getGroupSortedIndex() {
                 if (index.getIndexType().isScan()) {
                     continue;
                 }
-                if (index.getIndexType().isHash()) {
+                if (!index.canScan()) {
                     // does not allow scanning entries
                     continue;
                 }
@@ -622,7 +622,7 @@ private Index getSortIndex() {
                     // can't use the scan index
                     continue;
                 }
-                if (index.getIndexType().isHash()) {
+                if (!index.canScan()) {
                     continue;
                 }
                 IndexColumn[] indexCols = index.getIndexColumns();
@@ -1211,9 +1211,10 @@ public void prepare() {
                             current.getIndexType().isScan() ||
                             columnIndex == current)) {
                         IndexType type = columnIndex.getIndexType();
-                        // hash indexes don't work, and unique single column
-                        // indexes don't work
-                        if (!type.isHash() && (!type.isUnique() ||
+                        // indexes that can't scan entries (hash indexes of
+                        // PageStore tables) don't work, and unique single
+                        // column indexes don't work
+                        if (columnIndex.canScan() && (!type.isUnique() ||
                                 columnIndex.getColumns().length > 1)) {
                             topTableFilter.setIndex(columnIndex);
                             isDistinctQuery = true;
@@ -314,6 +314,13 @@ public class Constants {
      */
     public static final int IO_BUFFER_SIZE_COMPRESS = 128 * 1024;
 
+    /**
+     * The maximum number of bytes of a LOB that are transferred in one
+     * LOB_READ response of the TCP protocol. Clients use read buffers of this
+     * size to reduce the number of round trips.
+     */
+    public static final int IO_BUFFER_SIZE_LOB_READ = 256 * 1024;
+
     /**
      * The number of milliseconds to wait between checking the .lock.db file
      * still exists once a database is locked.
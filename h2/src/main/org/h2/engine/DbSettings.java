@@ -160,6 +160,14 @@ public class DbSettings extends SettingsBase {
      */
     public final boolean functionsInSchema = get("FUNCTIONS_IN_SCHEMA", true);
 
+    /**
+     * Database setting <code>LOB_DEDUPLICATION</code> (default: false).<br />
+     * When enabled, a large object with the same content as an already stored
+     * one is stored only once (MVStore only). The content is compared using its
+     * SHA-256 hash.
+     */
+    public final boolean lobDeduplication = get("LOB_DEDUPLICATION", false);
+
     /**
      * Database setting <code>LOB_TIMEOUT</code> (default: 300000,
      * which means 5 minutes).<br />
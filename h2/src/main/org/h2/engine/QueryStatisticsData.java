@@ -6,37 +6,47 @@
 package org.h2.engine;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
-import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Maintains query statistics.
+ *
+ * Statements executed by different sessions update their entries
+ * concurrently; only updates of the same entry are serialized.
  */
 public class QueryStatisticsData {
 
     private static final Comparator<QueryEntry> QUERY_ENTRY_COMPARATOR =
             Comparator.comparingLong(q -> q.lastUpdateTime);
 
-    private final HashMap<String, QueryEntry> map = new HashMap<>();
+    private final ConcurrentHashMap<String, QueryEntry> map = new ConcurrentHashMap<>();
 
-    private int maxQueryEntries;
+    /**
+     * Whether some thread is currently removing the oldest entries.
+     */
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    private volatile int maxQueryEntries;
 
     public QueryStatisticsData(int maxQueryEntries) {
         this.maxQueryEntries = maxQueryEntries;
     }
 
-    public synchronized void setMaxQueryEntries(int maxQueryEntries) {
+    public void setMaxQueryEntries(int maxQueryEntries) {
         this.maxQueryEntries = maxQueryEntries;
     }
 
-    public synchronized List<QueryEntry> getQueries() {
-        // return a copy of the map so we don't have to
+    public List<QueryEntry> getQueries() {
+        // return copies of the entries so we don't have to
         // worry about external synchronization
-        ArrayList<QueryEntry> list = new ArrayList<>(map.values());
+        ArrayList<QueryEntry> list = new ArrayList<>(map.size());
+        for (QueryEntry entry : map.values()) {
+            list.add(entry.copy());
+        }
         // only return the newest 100 entries
         list.sort(QUERY_ENTRY_COMPARATOR);
         return list.subList(0, Math.min(list.size(), maxQueryEntries));
@@ -50,32 +60,50 @@ public synchronized List<QueryEntry> getQueries() {
      *            to execute
      * @param rowCount the query or update row count
      */
-    public synchronized void update(String sqlStatement, long executionTimeNanos,
+    public void update(String sqlStatement, long executionTimeNanos,
             int rowCount) {
         QueryEntry entry = map.get(sqlStatement);
         if (entry == null) {
-            entry = new QueryEntry(sqlStatement);
-            map.put(sqlStatement, entry);
+            entry = map.computeIfAbsent(sqlStatement, QueryEntry::new);
+        }
+        synchronized (entry) {
+            entry.update(executionTimeNanos, rowCount);
         }
-        entry.update(executionTimeNanos, rowCount);
 
         // Age-out the oldest entries if the map gets too big.
-        // Test against 1.5 x max-size so we don't do this too often
-        if (map.size() > maxQueryEntries * 1.5f) {
-            // Sort the entries by age
-            ArrayList<QueryEntry> list = new ArrayList<>(map.values());
-            list.sort(QUERY_ENTRY_COMPARATOR);
-            // Create a set of the oldest 1/3 of the entries
-            HashSet<QueryEntry> oldestSet =
-                    new HashSet<>(list.subList(0, list.size() / 3));
-            // Loop over the map using the set and remove
-            // the oldest 1/3 of the entries.
-            for (Iterator<Entry<String, QueryEntry>> it =
-                    map.entrySet().iterator(); it.hasNext();) {
-                Entry<String, QueryEntry> mapEntry = it.next();
-                if (oldestSet.contains(mapEntry.getValue())) {
-                    it.remove();
-                }
+        // Test against 1.5 x max-size so we don't do this too often.
+        // Only one thread does this at a time, the others don't wait for it.
+        if (map.size() > maxQueryEntries * 1.5f && evicting.compareAndSet(false, true)) {
+            try {
+                removeOldest();
+            } finally {
+                evicting.set(false);
+            }
+        }
+    }
+
+    private void removeOldest() {
+        // Other sessions may update the entries while they are sorted, so
+        // sort a snapshot of their update times instead of the entries
+        int size = map.size();
+        QueryEntry[] entries = map.values().toArray(new QueryEntry[size]);
+        size = entries.length;
+        long[] times = new long[size];
+        for (int i = 0; i < size; i++) {
+            times[i] = entries[i].lastUpdateTime;
+        }
+        int removeCount = size / 3;
+        if (removeCount == 0) {
+            return;
+        }
+        long[] sorted = times.clone();
+        Arrays.sort(sorted);
+        long oldest = sorted[removeCount - 1];
+        // Remove the oldest 1/3 of the entries
+        for (int i = 0; i < size && removeCount > 0; i++) {
+            if (times[i] <= oldest) {
+                map.remove(entries[i].sqlStatement, entries[i]);
+                removeCount--;
             }
         }
     }
@@ -99,7 +127,7 @@ public static final class QueryEntry {
          * The last time the statistics for this entry were updated,
          * in milliseconds since 1970.
          */
-        public long lastUpdateTime;
+        public volatile long lastUpdateTime;
 
         /**
          * The minimum execution time, in nanoseconds.
@@ -178,6 +206,28 @@ void update(long timeNanos, int rows) {
             lastUpdateTime = System.currentTimeMillis();
         }
 
+        /**
+         * Create a consistent copy of this entry.
+         *
+         * @return the copy
+         */
+        synchronized QueryEntry copy() {
+            QueryEntry e = new QueryEntry(sqlStatement);
+            e.count = count;
+            e.lastUpdateTime = lastUpdateTime;
+            e.executionTimeMinNanos = executionTimeMinNanos;
+            e.executionTimeMaxNanos = executionTimeMaxNanos;
+            e.executionTimeCumulativeNanos = executionTimeCumulativeNanos;
+            e.rowCountMin = rowCountMin;
+            e.rowCountMax = rowCountMax;
+            e.rowCountCumulative = rowCountCumulative;
+            e.executionTimeMeanNanos = executionTimeMeanNanos;
+            e.rowCountMean = rowCountMean;
+            e.executionTimeM2Nanos = executionTimeM2Nanos;
+            e.rowCountM2 = rowCountM2;
+            return e;
+        }
+
         public double getExecutionTimeStandardDeviation() {
             // population standard deviation
             return Math.sqrt(executionTimeM2Nanos / count);
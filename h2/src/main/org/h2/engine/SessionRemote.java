@@ -280,19 +280,49 @@ public void autoCommitIfCluster() {
             // server side auto commit is off because of race conditions
             // (update set id=1 where id=0, but update set id=2 where id=0 is
             // faster)
-            for (int i = 0, count = 0; i < transferList.size(); i++) {
+            // send the commit to all servers first, so that they commit
+            // concurrently, and only then wait for the responses
+            int count = 0;
+            ArrayList<Transfer> sent = new ArrayList<>(transferList.size());
+            for (int i = 0; i < transferList.size(); i++) {
                 Transfer transfer = transferList.get(i);
                 try {
-                    traceOperation("COMMAND_COMMIT", 0);
-                    transfer.writeInt(SessionRemote.COMMAND_COMMIT);
+                    sendCommit(transfer);
+                    sent.add(transfer);
+                } catch (IOException e) {
+                    removeServer(e, i--, ++count);
+                }
+            }
+            DbException error = null;
+            for (int i = 0; i < transferList.size(); i++) {
+                Transfer transfer = transferList.get(i);
+                try {
+                    if (!sent.contains(transfer)) {
+                        // re-connected after the commit was sent
+                        sendCommit(transfer);
+                        sent.add(transfer);
+                    }
                     done(transfer);
                 } catch (IOException e) {
                     removeServer(e, i--, ++count);
+                } catch (DbException e) {
+                    // read the responses of the other servers anyway
+                    if (error == null) {
+                        error = e;
+                    }
                 }
             }
+            if (error != null) {
+                throw error;
+            }
         }
     }
 
+    private void sendCommit(Transfer transfer) throws IOException {
+        traceOperation("COMMAND_COMMIT", 0);
+        transfer.writeInt(SessionRemote.COMMAND_COMMIT).flush();
+    }
+
     private String getFilePrefix(String dir) {
         StringBuilder buff = new StringBuilder(dir);
         buff.append('/');
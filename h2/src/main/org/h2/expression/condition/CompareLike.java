@@ -59,6 +59,8 @@ public class CompareLike extends Condition {
     private boolean shortcutToEndsWith;
     /** indicates that we can shortcut the comparison and use contains */
     private boolean shortcutToContains;
+    /** the string to search for if shortcutToContains is set */
+    private String containsString;
 
     public CompareLike(Database db, Expression left, Expression right,
             Expression escape, boolean regexp) {
@@ -275,11 +277,10 @@ public Value getValue(Session session) {
             result = value.regionMatches(ignoreCase, value.length() -
                     patternLength + 1, patternString, 1, patternLength - 1);
         } else if (shortcutToContains) {
-            String p = patternString.substring(1, patternString.length() - 1);
             if (ignoreCase) {
-                result = containsIgnoreCase(value, p);
+                result = containsIgnoreCase(value, containsString);
             } else {
-                result = value.contains(p);
+                result = value.contains(containsString);
             }
         } else {
             result = compareAt(value, 0, 0, value.length(), patternChars, patternTypes);
@@ -465,6 +466,7 @@ private void initPattern(String p, Character escapeChar) {
                 }
                 if (maxMatch == patternLength - 1 && patternTypes[patternLength - 1] == ANY) {
                     shortcutToContains = true;
+                    containsString = patternString.substring(1, patternLength - 1);
                 }
             }
         }
@@ -6,6 +6,7 @@
 package org.h2.expression.condition;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import org.h2.api.ErrorCode;
 import org.h2.engine.Session;
 import org.h2.expression.Expression;
@@ -20,6 +21,7 @@
 import org.h2.message.DbException;
 import org.h2.table.Column;
 import org.h2.table.ColumnResolver;
+import org.h2.table.Table;
 import org.h2.table.TableFilter;
 import org.h2.value.TypeInfo;
 import org.h2.value.Value;
@@ -249,6 +251,15 @@ public Value getValue(Session session) {
         if (l == ValueNull.INSTANCE && (compareType & NULL_SAFE) == 0) {
             return ValueNull.INSTANCE;
         }
+        return compareValue(session, l, right.getValue(session), compareType);
+    }
+
+    @Override
+    public boolean getBooleanValue(Session session) {
+        Value l = left.getValue(session);
+        if (l == ValueNull.INSTANCE && (compareType & NULL_SAFE) == 0) {
+            return false;
+        }
         return compare(session, l, right.getValue(session), compareType);
     }
 
@@ -261,91 +272,80 @@ public Value getValue(Session session) {
      * @param compareType the compare type
      * @return result of comparison, either TRUE, FALSE, or NULL
      */
-    static Value compare(Session session, Value l, Value r, int compareType) {
-        Value result;
+    static Value compareValue(Session session, Value l, Value r, int compareType) {
         switch (compareType) {
-        case EQUAL: {
-            int cmp = session.compareWithNull(l, r, true);
-            if (cmp == 0) {
-                result = ValueBoolean.TRUE;
-            } else if (cmp == Integer.MIN_VALUE) {
-                result = ValueNull.INSTANCE;
-            } else {
-                result = ValueBoolean.FALSE;
-            }
-            break;
-        }
         case EQUAL_NULL_SAFE:
-            result = ValueBoolean.get(session.areEqual(l, r));
-            break;
-        case NOT_EQUAL: {
-            int cmp = session.compareWithNull(l, r, true);
-            if (cmp == 0) {
-                result = ValueBoolean.FALSE;
-            } else if (cmp == Integer.MIN_VALUE) {
-                result = ValueNull.INSTANCE;
-            } else {
-                result = ValueBoolean.TRUE;
-            }
-            break;
-        }
         case NOT_EQUAL_NULL_SAFE:
-            result = ValueBoolean.get(!session.areEqual(l, r));
-            break;
-        case BIGGER_EQUAL: {
-            int cmp = session.compareWithNull(l, r, false);
-            if (cmp >= 0) {
-                result = ValueBoolean.TRUE;
-            } else if (cmp == Integer.MIN_VALUE) {
-                result = ValueNull.INSTANCE;
-            } else {
-                result = ValueBoolean.FALSE;
-            }
-            break;
-        }
-        case BIGGER: {
-            int cmp = session.compareWithNull(l, r, false);
-            if (cmp > 0) {
-                result = ValueBoolean.TRUE;
-            } else if (cmp == Integer.MIN_VALUE) {
-                result = ValueNull.INSTANCE;
-            } else {
-                result = ValueBoolean.FALSE;
+            return ValueBoolean.get(compare(session, l, r, compareType));
+        case SPATIAL_INTERSECTS:
+            if (l == ValueNull.INSTANCE || r == ValueNull.INSTANCE) {
+                return ValueNull.INSTANCE;
             }
-            break;
-        }
-        case SMALLER_EQUAL: {
-            int cmp = session.compareWithNull(l, r, false);
+            return ValueBoolean.get(compare(session, l, r, compareType));
+        default:
+            int cmp = session.compareWithNull(l, r, compareType == EQUAL || compareType == NOT_EQUAL);
             if (cmp == Integer.MIN_VALUE) {
-                result = ValueNull.INSTANCE;
-            } else {
-                result = ValueBoolean.get(cmp <= 0);
+                return ValueNull.INSTANCE;
             }
-            break;
-        }
-        case SMALLER: {
-            int cmp = session.compareWithNull(l, r, false);
-            if (cmp == Integer.MIN_VALUE) {
-                result = ValueNull.INSTANCE;
-            } else {
-                result = ValueBoolean.get(cmp < 0);
-            }
-            break;
+            return ValueBoolean.get(check(cmp, compareType));
         }
+    }
+
+    /**
+     * Check whether the comparison of two values is TRUE.
+     *
+     * @param session the session
+     * @param l the first value
+     * @param r the second value
+     * @param compareType the compare type
+     * @return true if the result of comparison is TRUE, false if it is FALSE
+     *         or NULL
+     */
+    static boolean compare(Session session, Value l, Value r, int compareType) {
+        switch (compareType) {
+        case EQUAL_NULL_SAFE:
+            return session.areEqual(l, r);
+        case NOT_EQUAL_NULL_SAFE:
+            return !session.areEqual(l, r);
         case SPATIAL_INTERSECTS: {
             if (l == ValueNull.INSTANCE || r == ValueNull.INSTANCE) {
-                result = ValueNull.INSTANCE;
-            } else {
-                ValueGeometry lg = (ValueGeometry) l.convertTo(Value.GEOMETRY);
-                ValueGeometry rg = (ValueGeometry) r.convertTo(Value.GEOMETRY);
-                result = ValueBoolean.get(lg.intersectsBoundingBox(rg));
+                return false;
             }
-            break;
+            ValueGeometry lg = (ValueGeometry) l.convertTo(Value.GEOMETRY);
+            ValueGeometry rg = (ValueGeometry) r.convertTo(Value.GEOMETRY);
+            return lg.intersectsBoundingBox(rg);
+        }
+        default:
+            int cmp = session.compareWithNull(l, r, compareType == EQUAL || compareType == NOT_EQUAL);
+            return cmp != Integer.MIN_VALUE && check(cmp, compareType);
         }
+    }
+
+    /**
+     * Check whether the result of comparison of two not null values matches
+     * the compare type.
+     *
+     * @param cmp the result of comparison
+     * @param compareType the compare type
+     * @return whether the result matches
+     */
+    private static boolean check(int cmp, int compareType) {
+        switch (compareType) {
+        case EQUAL:
+            return cmp == 0;
+        case NOT_EQUAL:
+            return cmp != 0;
+        case BIGGER_EQUAL:
+            return cmp >= 0;
+        case BIGGER:
+            return cmp > 0;
+        case SMALLER_EQUAL:
+            return cmp <= 0;
+        case SMALLER:
+            return cmp < 0;
         default:
             throw DbException.throwInternalError("type=" + compareType);
         }
-        return result;
     }
 
     private int getReversedCompareType(int type) {
@@ -420,6 +420,13 @@ public void createIndexConditions(Session session, TableFilter filter) {
                 r = null;
             }
         }
+        if (l == null && r == null) {
+            // an expression may be the same as a computed column
+            l = getComputedColumn(session, filter, left);
+            if (l == null) {
+                r = getComputedColumn(session, filter, right);
+            }
+        }
         // one side must be from the current filter
         if (l == null && r == null) {
             return;
@@ -480,6 +487,32 @@ public void createIndexConditions(Session session, TableFilter filter) {
         }
     }
 
+    /**
+     * Get the computed column of the table with the same expression as the
+     * given one, so that an index on this column can be used.
+     *
+     * @param session the session
+     * @param filter the table filter
+     * @param e the expression
+     * @return the column expression, or null if there is no such column
+     */
+    private static ExpressionColumn getComputedColumn(Session session, TableFilter filter, Expression e) {
+        if (e instanceof ExpressionColumn || e.isEverything(ExpressionVisitor.getNotFromResolverVisitor(filter))
+                || !e.isEverything(ExpressionVisitor.DETERMINISTIC_VISITOR)) {
+            return null;
+        }
+        Table table = filter.getTable();
+        HashSet<Column> columns = new HashSet<>();
+        e.isEverything(ExpressionVisitor.getColumnsVisitor(columns, null));
+        for (Column column : columns) {
+            if (column.getTable() != table) {
+                return null;
+            }
+        }
+        Column column = table.findComputedColumn(filter, e);
+        return column == null ? null : new ExpressionColumn(session.getDatabase(), column);
+    }
+
     @Override
     public void setEvaluatable(TableFilter tableFilter, boolean b) {
         left.setEvaluatable(tableFilter, b);
@@ -128,6 +128,19 @@ public Value getValue(Session session) {
         }
     }
 
+    @Override
+    public boolean getBooleanValue(Session session) {
+        // NULL is not TRUE, so unknown values don't need special handling
+        switch (andOrType) {
+        case AND:
+            return left.getBooleanValue(session) && right.getBooleanValue(session);
+        case OR:
+            return left.getBooleanValue(session) || right.getBooleanValue(session);
+        default:
+            throw DbException.throwInternalError("type=" + andOrType);
+        }
+    }
+
     @Override
     public Expression optimize(Session session) {
         // NULL handling: see wikipedia,
@@ -59,7 +59,7 @@ public Value getValue(Session session) {
         for (int i = 0; i < size; i++) {
             Expression e = valueList.get(i);
             Value r = e.getValue(session);
-            Value cmp = Comparison.compare(session, l, r, Comparison.EQUAL);
+            Value cmp = Comparison.compareValue(session, l, r, Comparison.EQUAL);
             if (cmp == ValueNull.INSTANCE) {
                 hasNull = true;
             } else if (cmp == ValueBoolean.TRUE) {
@@ -78,7 +78,7 @@ static Value getValue(Session session, Value l, Value value) {
         } else if (value.getValueType() == Value.RESULT_SET) {
             for (ResultInterface ri = value.getResult(); ri.next();) {
                 Value r = ri.currentRow()[0];
-                Value cmp = Comparison.compare(session, l, r, Comparison.EQUAL);
+                Value cmp = Comparison.compareValue(session, l, r, Comparison.EQUAL);
                 if (cmp == ValueNull.INSTANCE) {
                     hasNull = true;
                 } else if (cmp == ValueBoolean.TRUE) {
@@ -87,7 +87,7 @@ static Value getValue(Session session, Value l, Value value) {
             }
         } else {
             for (Value r : ((ValueArray) value.convertTo(Value.ARRAY)).getList()) {
-                Value cmp = Comparison.compare(session, l, r, Comparison.EQUAL);
+                Value cmp = Comparison.compareValue(session, l, r, Comparison.EQUAL);
                 if (cmp == ValueNull.INSTANCE) {
                     hasNull = true;
                 } else if (cmp == ValueBoolean.TRUE) {
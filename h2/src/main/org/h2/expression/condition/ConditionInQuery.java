@@ -127,7 +127,7 @@ private Value compare(Session session, Value l, ResultInterface rows) {
         Value[] currentRow = rows.currentRow();
         Value r = l.getValueType() != Value.ROW && query.getColumnCount() == 1 ? currentRow[0]
                 : ValueRow.get(currentRow);
-        return Comparison.compare(session, l, r, compareType);
+        return Comparison.compareValue(session, l, r, compareType);
     }
 
     @Override
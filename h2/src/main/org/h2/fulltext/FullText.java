@@ -616,7 +616,8 @@ protected static ResultSet search(Connection conn, String text, int limit,
             rIds = new HashSet<>();
             Integer wId = setting.getWordId(word);
             if (wId == null) {
-                continue;
+                // all words must match, but this one is not indexed
+                return result;
             }
             prepSelectMapByWordId.setInt(1, wId);
             ResultSet rs = prepSelectMapByWordId.executeQuery();
@@ -626,8 +627,12 @@ protected static ResultSet search(Connection conn, String text, int limit,
                     rIds.add(rId);
                 }
             }
+            if (rIds.isEmpty()) {
+                // no need to read the rows of the remaining words
+                return result;
+            }
         }
-        if (rIds == null || rIds.isEmpty()) {
+        if (rIds == null) {
             return result;
         }
         PreparedStatement prepSelectRowById = setting.prepare(conn, SELECT_ROW_BY_ID);
@@ -256,8 +256,10 @@ protected final long getCostRangeIndex(int[] masks, long rowCount,
             ArrayList<Column> foundCols = allColumnsSet.get(getTable());
             if (foundCols != null)
             {
+                int mainIndexColumn = table.getMainIndexColumn();
                 for (Column c : foundCols) {
-                    boolean found = false;
+                    // the row key is a part of each index entry
+                    boolean found = c.getColumnId() == mainIndexColumn;
                     for (Column c2 : columns) {
                         if (c == c2) {
                             found = true;
@@ -22,8 +22,8 @@
 import java.io.PrintWriter;
 import java.sql.Connection;
 import java.sql.SQLException;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -71,7 +71,12 @@ public class JdbcConnectionPool implements DataSource, ConnectionEventListener,
     private static final int DEFAULT_MAX_CONNECTIONS = 10;
 
     private final ConnectionPoolDataSource dataSource;
-    private final Queue<PooledConnection> recycledConnections = new ConcurrentLinkedQueue<>();
+    /**
+     * The idle connections. Used as a stack, so that the most recently used
+     * (and therefore "warm") connection is handed out first, and the
+     * connections at the bottom are the ones that stayed unused the longest.
+     */
+    private final Deque<PooledConnection> recycledConnections = new ConcurrentLinkedDeque<>();
     private PrintWriter logWriter;
     private volatile int maxConnections = DEFAULT_MAX_CONNECTIONS;
     private volatile int timeout = DEFAULT_TIMEOUT;
@@ -229,10 +234,21 @@ private Connection getConnectionNow() throws SQLException {
         if (isDisposed.get()) {
             throw new IllegalStateException("Connection pool has been disposed.");
         }
-        PooledConnection pc = recycledConnections.poll();
-        if (pc == null) {
-            pc = dataSource.getPooledConnection();
+        PooledConnection pc;
+        while ((pc = recycledConnections.pollFirst()) != null) {
+            Connection conn;
+            try {
+                conn = pc.getConnection();
+            } catch (SQLException e) {
+                // the physical connection is no longer usable, for example
+                // because the database was closed in the meantime
+                closeConnection(pc);
+                continue;
+            }
+            pc.addConnectionEventListener(this);
+            return conn;
         }
+        pc = dataSource.getPooledConnection();
         Connection conn = pc.getConnection();
         pc.addConnectionEventListener(this);
         return conn;
@@ -252,7 +268,7 @@ private void recycleConnection(PooledConnection pc) {
             throw new AssertionError();
         }
         if (!isDisposed.get() && active < maxConnections) {
-            recycledConnections.add(pc);
+            recycledConnections.addFirst(pc);
             if (isDisposed.get()) {
                 dispose();
             }
@@ -19,6 +19,7 @@
 import org.h2.engine.Constants;
 import org.h2.engine.Database;
 import org.h2.engine.Session;
+import org.h2.mvstore.db.MVTableEngine.Store;
 import org.h2.pagestore.PageStore;
 import org.h2.table.Table;
 import org.h2.util.NetworkConnectionInfo;
@@ -164,7 +165,7 @@ public long getFileWriteCount() {
         if (p != null) {
             return p.getWriteCount();
         }
-        return database.getStore().getMvStore().getFileStore().getReadCount();
+        return database.getStore().getMvStore().getFileStore().getWriteCount();
     }
 
     @Override
@@ -222,6 +223,36 @@ public int getCacheSize() {
         return database.getStore().getMvStore().getCacheSizeUsed() * 1024;
     }
 
+    @Override
+    public int getCacheHitRatio() {
+        Store store = database.getStore();
+        return store == null ? 0 : store.getMvStore().getCacheHitRatio();
+    }
+
+    @Override
+    public long getChunkWriteCount() {
+        Store store = database.getStore();
+        return store == null ? 0 : store.getMvStore().getChunkWriteCount();
+    }
+
+    @Override
+    public long getPageRewriteCount() {
+        Store store = database.getStore();
+        return store == null ? 0 : store.getMvStore().getRewrittenPageCount();
+    }
+
+    @Override
+    public double getUpdateFailurePercent() {
+        Store store = database.getStore();
+        return store == null ? 0 : 100 * store.getMvStore().getUpdateFailureRatio();
+    }
+
+    @Override
+    public int getOpenTransactionCount() {
+        Store store = database.getStore();
+        return store == null ? 0 : store.getTransactionStore().getOpenTransactionCount();
+    }
+
     @Override
     public String getVersion() {
         return Constants.FULL_VERSION;
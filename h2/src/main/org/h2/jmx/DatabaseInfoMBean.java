@@ -127,6 +127,50 @@ public interface DatabaseInfoMBean {
      */
     int getCacheSize();
 
+    /**
+     * The percentage of page cache hits.
+     * @h2.resource
+     *
+     * @return the cache hit ratio in percent
+     */
+    int getCacheHitRatio();
+
+    /**
+     * The number of chunks written since the database was opened
+     * (0 if the MVStore is not used).
+     * @h2.resource
+     *
+     * @return the number of written chunks
+     */
+    long getChunkWriteCount();
+
+    /**
+     * The number of pages re-written by compaction since the database was
+     * opened (0 if the MVStore is not used).
+     * @h2.resource
+     *
+     * @return the number of re-written pages
+     */
+    long getPageRewriteCount();
+
+    /**
+     * The percentage of concurrent map updates that had to be retried
+     * (0 if the MVStore is not used).
+     * @h2.resource
+     *
+     * @return the update failure ratio in percent
+     */
+    double getUpdateFailurePercent();
+
+    /**
+     * The number of open transactions, including the transactions of idle
+     * sessions (0 if the MVStore is not used).
+     * @h2.resource
+     *
+     * @return the number of open transactions
+     */
+    int getOpenTransactionCount();
+
     /**
      * The database version.
      * @h2.resource
@@ -9,7 +9,8 @@
 import java.io.PrintStream;
 import java.io.PrintWriter;
 import java.io.Writer;
-import java.text.SimpleDateFormat;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.concurrent.atomic.AtomicReferenceArray;
 import org.h2.api.ErrorCode;
 import org.h2.engine.Constants;
@@ -76,6 +77,12 @@ public class TraceSystem implements TraceWriter {
 
     private static final int CHECK_SIZE_EACH_WRITES = 4096;
 
+    /**
+     * The format of the timestamp. Unlike SimpleDateFormat, it is thread-safe,
+     * so that formatting doesn't need to be synchronized.
+     */
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss ");
+
     private int levelSystemOut = DEFAULT_TRACE_LEVEL_SYSTEM_OUT;
     private int levelFile = DEFAULT_TRACE_LEVEL_FILE;
     private int levelMax;
@@ -83,7 +90,6 @@ public class TraceSystem implements TraceWriter {
     private String fileName;
     private final AtomicReferenceArray<Trace> traces =
             new AtomicReferenceArray<>(Trace.MODULE_NAMES.length);
-    private SimpleDateFormat dateFormat;
     private Writer fileWriter;
     private PrintWriter printWriter;
     /**
@@ -220,11 +226,11 @@ public int getLevelFile() {
         return levelFile;
     }
 
-    private synchronized String format(String module, String s) {
-        if (dateFormat == null) {
-            dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss ");
-        }
-        return dateFormat.format(System.currentTimeMillis()) + module + ": " + s;
+    private static String format(String module, String s) {
+        // the message may be null
+        StringBuilder builder = new StringBuilder(26 + module.length() + (s != null ? s.length() : 0));
+        DATE_FORMAT.formatTo(LocalDateTime.now(), builder);
+        return builder.append(module).append(": ").append(s).toString();
     }
 
     @Override
@@ -234,17 +240,19 @@ public void write(int level, int moduleId, String s, Throwable t) {
 
     @Override
     public void write(int level, String module, String s, Throwable t) {
+        String formatted = null;
         if (level <= levelSystemOut || level > this.levelMax) {
             // level <= levelSystemOut: the system out level is set higher
             // level > this.level: the level for this module is set higher
-            sysOut.println(format(module, s));
+            formatted = format(module, s);
+            sysOut.println(formatted);
             if (t != null && levelSystemOut == DEBUG) {
                 t.printStackTrace(sysOut);
             }
         }
         if (fileName != null) {
             if (level <= levelFile) {
-                writeFile(format(module, s), t);
+                writeFile(formatted != null ? formatted : format(module, s), t);
             }
         }
     }
@@ -310,7 +318,8 @@ private boolean openWriter() {
                 }
                 fileWriter = IOUtils.getBufferedWriter(
                         FileUtils.newOutputStream(fileName, true));
-                printWriter = new PrintWriter(fileWriter, true);
+                // flushed once after each entry, not after each line
+                printWriter = new PrintWriter(fileWriter, false);
             } catch (Exception e) {
                 logWritingError(e);
                 return false;
@@ -51,6 +51,7 @@
     private static final String ATTR_LIVE_PAGES = "livePages";
     private static final String ATTR_UNUSED = "unused";
     private static final String ATTR_UNUSED_AT_VERSION = "unusedAtVersion";
+    private static final String ATTR_MOVED_AT_VERSION = "movedAtVersion";
     private static final String ATTR_PIN_COUNT = "pinCount";
     private static final String ATTR_FLETCHER = "fletcher";
 
@@ -123,6 +124,12 @@
      */
     long unusedAtVersion;
 
+    /**
+     * Version of the store at which the chunk was moved the last time, or 0 if
+     * it was never moved.
+     */
+    long movedAtVersion;
+
     /**
      * The last used map id.
      */
@@ -225,6 +232,7 @@ public static Chunk fromString(String s) {
         c.time = DataUtils.readHexLong(map, ATTR_TIME, 0);
         c.unused = DataUtils.readHexLong(map, ATTR_UNUSED, 0);
         c.unusedAtVersion = DataUtils.readHexLong(map, ATTR_UNUSED_AT_VERSION, 0);
+        c.movedAtVersion = DataUtils.readHexLong(map, ATTR_MOVED_AT_VERSION, 0);
         c.version = DataUtils.readHexLong(map, ATTR_VERSION, id);
         c.next = DataUtils.readHexLong(map, ATTR_NEXT, 0);
         c.pinCount = DataUtils.readHexInt(map, ATTR_PIN_COUNT, 0);
@@ -286,6 +294,9 @@ public String asString() {
         if (unusedAtVersion != 0) {
             DataUtils.appendMap(buff, ATTR_UNUSED_AT_VERSION, unusedAtVersion);
         }
+        if (movedAtVersion != 0) {
+            DataUtils.appendMap(buff, ATTR_MOVED_AT_VERSION, movedAtVersion);
+        }
         DataUtils.appendMap(buff, ATTR_VERSION, version);
         DataUtils.appendMap(buff, ATTR_PIN_COUNT, pinCount);
         return buff.toString();
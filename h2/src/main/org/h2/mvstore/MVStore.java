@@ -6,6 +6,9 @@
 package org.h2.mvstore;
 
 import static org.h2.mvstore.MVMap.INITIAL_VERSION;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.lang.Thread.UncaughtExceptionHandler;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
@@ -189,6 +192,12 @@ public class MVStore implements AutoCloseable
 
     private volatile boolean reuseSpace = true;
 
+    /**
+     * The number of incremental backups that are currently written. While
+     * there are any, free space is not reused and chunks are not moved.
+     */
+    private final AtomicInteger backupCount = new AtomicInteger();
+
     private volatile int state;
 
     private final FileStore fileStore;
@@ -223,6 +232,16 @@ public class MVStore implements AutoCloseable
     private long updateCounter = 0;
     private long updateAttemptCounter = 0;
 
+    /**
+     * The number of chunks written since the store was opened.
+     */
+    private volatile long chunkWriteCount;
+
+    /**
+     * The number of pages re-written by compaction since the store was opened.
+     */
+    private volatile long rewrittenPageCount;
+
     /**
      * The metadata map. Write access to this map needs to be done under storeLock.
      */
@@ -899,7 +918,14 @@ private void readStoreHeader() {
                 fileStore.markUsed(start, length);
             }
             if (!c.isLive()) {
-                deadChunks.offer(c);
+                if (c.isSaved()) {
+                    deadChunks.offer(c);
+                } else {
+                    // the meta map still has the old location of this chunk,
+                    // which is free now, so the entry has to be removed
+                    // before anything is written there
+                    deadChunks.offerFirst(c);
+                }
             }
         }
         assert validateFileLength("on open");
@@ -1307,7 +1333,7 @@ public long commit() {
     }
 
     private void store() {
-        store(0, reuseSpace ? 0 : getAfterLastBlock());
+        store(0, isSpaceReused() ? 0 : getAfterLastBlock());
     }
 
     private void store(long reservedLow, long reservedHigh) {
@@ -1518,6 +1544,9 @@ private void storeNow(long reservedLow, long reservedHigh) {
         }
 
         lastChunk = c;
+        // it is ok, since that path suppose to be single-threaded under storeLock
+        //noinspection NonAtomicOperationOnVolatileField
+        chunkWriteCount++;
         if (writeStoreHeader) {
             writeStoreHeader();
         }
@@ -1744,7 +1773,7 @@ private void compactMoveChunks(int targetFillRate, long moveSize) {
         storeLock.lock();
         try {
             checkOpen();
-            if (lastChunk != null && reuseSpace) {
+            if (lastChunk != null && isSpaceReused()) {
                 int oldRetentionTime = retentionTime;
                 boolean oldReuse = reuseSpace;
                 try {
@@ -1763,6 +1792,9 @@ private void compactMoveChunks(int targetFillRate, long moveSize) {
     }
 
     private boolean compactMoveChunks(long moveSize) {
+        if (backupCount.get() > 0) {
+            return false;
+        }
         dropUnusedChunks();
         long start = fileStore.getFirstFree() / BLOCK_SIZE;
         Iterable<Chunk> chunksToMove = findChunksToMove(start, moveSize);
@@ -1934,11 +1966,99 @@ private boolean moveChunk(Chunk chunk, long reservedAreaLow, long reservedAreaHi
         fileStore.free(start, length);
         chunk.block = block;
         chunk.next = 0;
+        // the meta map is stored with the next version
+        chunk.movedAtVersion = currentVersion + 1;
         meta.put(Chunk.getMetaKey(chunk.id), chunk.asString());
         markMetaChanged();
         return true;
     }
 
+    /**
+     * Write an incremental backup of the stored data. Only the live chunks
+     * that were written or moved after the given version are included,
+     * together with the store header and the positions of all other live
+     * chunks. The backup is applied with
+     * {@link MVStoreTool#restoreIncremental(String, java.io.InputStream)} to a
+     * copy of the file that contains the state of the previous backup. Use
+     * version -1 to get a full backup, which can be restored to a new file.
+     * <p>
+     * Only stored changes are included, so call commit first if needed.
+     * Concurrent write operations and backups are possible; chunks are not
+     * moved while a backup is written.
+     *
+     * @param sinceVersion the version returned by the previous backup, or -1
+     * @param out the output stream
+     * @return the version of this backup
+     */
+    public long backupIncremental(long sinceVersion, OutputStream out) {
+        checkOpen();
+        if (fileStore == null) {
+            throw DataUtils.newUnsupportedOperationException(
+                    "Incremental backup of an in-memory store");
+        }
+        TxCounter txCounter = registerVersionUsage();
+        // the live chunks must stay where they are until they are copied
+        backupCount.incrementAndGet();
+        try {
+            ByteBuffer header;
+            long fileSize;
+            long version;
+            ArrayList<Chunk> list = new ArrayList<>();
+            storeLock.lock();
+            try {
+                header = fileStore.readFully(0, 2 * BLOCK_SIZE);
+                fileSize = fileStore.size();
+                version = lastChunk == null ? -1 : lastChunk.version;
+                for (Chunk c : chunks.values()) {
+                    if (c.isSaved() && c.isLive()) {
+                        Chunk copy = new Chunk(c.id);
+                        copy.block = c.block;
+                        copy.len = c.len;
+                        copy.version = c.version;
+                        copy.movedAtVersion = c.movedAtVersion;
+                        list.add(copy);
+                    }
+                }
+            } finally {
+                storeLock.unlock();
+            }
+            DataOutputStream data = new DataOutputStream(out);
+            data.writeLong(version);
+            data.writeLong(fileSize);
+            data.write(header.array(), header.arrayOffset() + header.position(), header.remaining());
+            // list the unchanged chunks first, so that they can be verified
+            // before anything is written when restoring
+            list.sort(Comparator.comparingInt(c -> isChanged(c, sinceVersion) ? 1 : 0));
+            data.writeInt(list.size());
+            for (Chunk c : list) {
+                boolean changed = isChanged(c, sinceVersion);
+                data.writeInt(c.id);
+                data.writeLong(c.block);
+                data.writeInt(c.len);
+                data.writeLong(c.version);
+                data.writeBoolean(changed);
+                if (changed) {
+                    ByteBuffer buff = fileStore.readFully(c.block * BLOCK_SIZE, c.len * BLOCK_SIZE);
+                    data.write(buff.array(), buff.arrayOffset() + buff.position(), buff.remaining());
+                }
+            }
+            data.flush();
+            return version;
+        } catch (IOException e) {
+            throw DataUtils.newIllegalStateException(DataUtils.ERROR_WRITING_FAILED,
+                    "Writing the backup failed", e);
+        } finally {
+            backupCount.decrementAndGet();
+            deregisterVersionUsage(txCounter);
+        }
+    }
+
+    private static boolean isChanged(Chunk c, long sinceVersion) {
+        // a moved chunk keeps its version, but it is no longer at the block
+        // the previous backup has
+        return c.version > sinceVersion || c.movedAtVersion > sinceVersion;
+    }
+
     /**
      * Force all stored changes to be written to the storage. The default
      * implementation calls FileChannel.force(true).
@@ -1991,7 +2111,7 @@ public void compactFile(long maxCompactTime) {
      * @return if a chunk was re-written
      */
     public boolean compact(int targetFillRate, int write) {
-        if (reuseSpace && lastChunk != null) {
+        if (isSpaceReused() && lastChunk != null) {
             checkOpen();
             if (targetFillRate > 0 && getChunksFillRate() < targetFillRate) {
                 // We can't wait forever for the lock here,
@@ -2183,6 +2303,8 @@ private int compactRewrite(Set<Integer> set) {
         } finally {
             storeLock.lock();
         }
+        //noinspection NonAtomicOperationOnVolatileField
+        this.rewrittenPageCount += rewrittenPageCount;
         commit();
         assert validateRewrite(set);
         return rewrittenPageCount;
@@ -2309,6 +2431,10 @@ public boolean getReuseSpace() {
         return reuseSpace;
     }
 
+    private boolean isSpaceReused() {
+        return reuseSpace && backupCount.get() == 0;
+    }
+
     /**
      * Whether empty space in the file should be re-used. If enabled, old data
      * is overwritten (default). If disabled, writes are appended at the end of
@@ -2856,7 +2982,7 @@ void writeInBackground() {
     }
 
     private void doMaintenance(int targetFillRate) {
-        if (autoCompactFillRate > 0 && lastChunk != null && reuseSpace) {
+        if (autoCompactFillRate > 0 && lastChunk != null && isSpaceReused()) {
             try {
                 int lastProjectedFillRate = -1;
                 for (int cnt = 0; cnt < 5; cnt++) {
@@ -3116,6 +3242,25 @@ public int getCacheHitRatio() {
         return (int) (100 * hits / (hits + cache.getMisses() + 1));
     }
 
+    /**
+     * Get the number of chunks written since the store was opened.
+     *
+     * @return the number of chunks
+     */
+    public long getChunkWriteCount() {
+        return chunkWriteCount;
+    }
+
+    /**
+     * Get the number of pages that were re-written by compaction since the
+     * store was opened.
+     *
+     * @return the number of pages
+     */
+    public long getRewrittenPageCount() {
+        return rewrittenPageCount;
+    }
+
     public double getUpdateFailureRatio() {
         long updateCounter = this.updateCounter;
         long updateAttemptCounter = this.updateAttemptCounter;
@@ -3206,8 +3351,11 @@ private int dropUnusedChunks() {
             long oldestVersionToKeep = getOldestVersionToKeep();
             long time = getTimeSinceCreation();
             Chunk chunk;
+            // chunks that are not saved take no space and are not used,
+            // so they are removed without waiting
             while ((chunk = deadChunks.poll()) != null &&
-                    (isSeasonedChunk(chunk, time) && canOverwriteChunk(chunk, oldestVersionToKeep) ||
+                    (!chunk.isSaved() ||
+                            isSeasonedChunk(chunk, time) && canOverwriteChunk(chunk, oldestVersionToKeep) ||
                             // if chunk is not ready yet, put it back and exit
                             // since this deque is inbounded, offerFirst() always return true
                             !deadChunks.offerFirst(chunk))) {
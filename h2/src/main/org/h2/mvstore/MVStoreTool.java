@@ -5,17 +5,25 @@
  */
 package org.h2.mvstore;
 
+import java.io.DataInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.PrintWriter;
+import java.io.StringWriter;
 import java.io.Writer;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.sql.Timestamp;
+import java.util.ArrayDeque;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.h2.compress.CompressDeflate;
 import org.h2.compress.CompressLZF;
@@ -34,6 +42,12 @@
  */
 public class MVStoreTool {
 
+    /**
+     * The maximum total length of the chunks that are dumped concurrently,
+     * unless a single chunk is larger.
+     */
+    private static final long MAX_PENDING_BYTES = 64 * 1024 * 1024;
+
     /**
      * Runs this tool.
      * Options are case sensitive. Supported options are:
@@ -115,6 +129,10 @@ public static void dump(String fileName, Writer writer, boolean details) {
         TreeMap<Integer, Long> mapSizesTotal =
                 new TreeMap<>();
         long pageSizeTotal = 0;
+        // the chunks are read and decoded concurrently, and printed in order
+        int threadCount = Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        ArrayDeque<PendingChunk> pending = new ArrayDeque<>();
         try {
             file = FilePath.get(fileName).open("r");
             long fileSize = file.size();
@@ -131,6 +149,7 @@ public static void dump(String fileName, Writer writer, boolean details) {
                     DataUtils.readFully(file, pos, block);
                 } catch (IllegalStateException e){
                     pos += blockSize;
+                    pageSizeTotal += printChunks(pending, 0, 0, pw, mapSizesTotal);
                     pw.printf("ERROR illegal position %d%n", pos);
                     continue;
                 }
@@ -138,6 +157,7 @@ public static void dump(String fileName, Writer writer, boolean details) {
                 int headerType = block.get();
                 if (headerType == 'H') {
                     String header = new String(block.array(), StandardCharsets.ISO_8859_1).trim();
+                    pageSizeTotal += printChunks(pending, 0, 0, pw, mapSizesTotal);
                     pw.printf("%0" + len + "x fileHeader %s%n",
                             pos, header);
                     pos += blockSize;
@@ -161,156 +181,17 @@ public static void dump(String fileName, Writer writer, boolean details) {
                     continue;
                 }
                 int length = c.len * MVStore.BLOCK_SIZE;
-                pw.printf("%n%0" + len + "x chunkHeader %s%n",
-                        pos, c.toString());
-                ByteBuffer chunk = ByteBuffer.allocate(length);
-                DataUtils.readFully(file, pos, chunk);
+                FileChannel f = file;
+                long chunkPos = pos;
+                Chunk chunkHeader = c;
                 int p = block.position();
+                pending.add(new PendingChunk(
+                        executor.submit(() -> dumpChunk(f, chunkPos, chunkHeader, p, len, details)), length));
                 pos += length;
-                int remaining = c.pageCount;
                 pageCount += c.pageCount;
-                TreeMap<Integer, Integer> mapSizes =
-                        new TreeMap<>();
-                int pageSizeSum = 0;
-                while (remaining > 0) {
-                    int start = p;
-                    try {
-                        chunk.position(p);
-                    } catch (IllegalArgumentException e) {
-                        // too far
-                        pw.printf("ERROR illegal position %d%n", p);
-                        break;
-                    }
-                    int pageSize = chunk.getInt();
-                    // check value (ignored)
-                    chunk.getShort();
-                    int mapId = DataUtils.readVarInt(chunk);
-                    int entries = DataUtils.readVarInt(chunk);
-                    int type = chunk.get();
-                    boolean compressed = (type & DataUtils.PAGE_COMPRESSED) != 0;
-                    boolean node = (type & 1) != 0;
-                    if (details) {
-                        pw.printf(
-                                "+%0" + len +
-                                "x %s, map %x, %d entries, %d bytes, maxLen %x%n",
-                                p,
-                                (node ? "node" : "leaf") +
-                                (compressed ? " compressed" : ""),
-                                mapId,
-                                node ? entries + 1 : entries,
-                                pageSize,
-                                DataUtils.getPageMaxLength(DataUtils.getPagePos(0, 0, pageSize, 0))
-                                );
-                    }
-                    p += pageSize;
-                    Integer mapSize = mapSizes.get(mapId);
-                    if (mapSize == null) {
-                        mapSize = 0;
-                    }
-                    mapSizes.put(mapId, mapSize + pageSize);
-                    Long total = mapSizesTotal.get(mapId);
-                    if (total == null) {
-                        total = 0L;
-                    }
-                    mapSizesTotal.put(mapId, total + pageSize);
-                    pageSizeSum += pageSize;
-                    pageSizeTotal += pageSize;
-                    remaining--;
-                    long[] children = null;
-                    long[] counts = null;
-                    if (node) {
-                        children = new long[entries + 1];
-                        for (int i = 0; i <= entries; i++) {
-                            children[i] = chunk.getLong();
-                        }
-                        counts = new long[entries + 1];
-                        for (int i = 0; i <= entries; i++) {
-                            long s = DataUtils.readVarLong(chunk);
-                            counts[i] = s;
-                        }
-                    }
-                    String[] keys = new String[entries];
-                    if (mapId == 0 && details) {
-                        ByteBuffer data;
-                        if (compressed) {
-                            boolean fast = (type & DataUtils.PAGE_COMPRESSED_HIGH) != DataUtils.PAGE_COMPRESSED_HIGH;
-                            Compressor compressor = getCompressor(fast);
-                            int lenAdd = DataUtils.readVarInt(chunk);
-                            int compLen = pageSize + start - chunk.position();
-                            byte[] comp = Utils.newBytes(compLen);
-                            chunk.get(comp);
-                            int l = compLen + lenAdd;
-                            data = ByteBuffer.allocate(l);
-                            compressor.expand(comp, 0, compLen, data.array(), 0, l);
-                        } else {
-                            data = chunk;
-                        }
-                        for (int i = 0; i < entries; i++) {
-                            String k = StringDataType.INSTANCE.read(data);
-                            keys[i] = k;
-                        }
-                        if (node) {
-                            // meta map node
-                            for (int i = 0; i < entries; i++) {
-                                long cp = children[i];
-                                pw.printf("    %d children < %s @ " +
-                                        "chunk %x +%0" +
-                                        len + "x%n",
-                                        counts[i],
-                                        keys[i],
-                                        DataUtils.getPageChunkId(cp),
-                                        DataUtils.getPageOffset(cp));
-                            }
-                            long cp = children[entries];
-                            pw.printf("    %d children >= %s @ chunk %x +%0" +
-                                    len + "x%n",
-                                    counts[entries],
-                                    keys.length >= entries ? null : keys[entries],
-                                    DataUtils.getPageChunkId(cp),
-                                    DataUtils.getPageOffset(cp));
-                        } else {
-                            // meta map leaf
-                            String[] values = new String[entries];
-                            for (int i = 0; i < entries; i++) {
-                                String v = StringDataType.INSTANCE.read(data);
-                                values[i] = v;
-                            }
-                            for (int i = 0; i < entries; i++) {
-                                pw.println("    " + keys[i] +
-                                        " = " + values[i]);
-                            }
-                        }
-                    } else {
-                        if (node && details) {
-                            for (int i = 0; i <= entries; i++) {
-                                long cp = children[i];
-                                pw.printf("    %d children @ chunk %x +%0" +
-                                        len + "x%n",
-                                        counts[i],
-                                        DataUtils.getPageChunkId(cp),
-                                        DataUtils.getPageOffset(cp));
-                            }
-                        }
-                    }
-                }
-                pageSizeSum = Math.max(1, pageSizeSum);
-                for (Integer mapId : mapSizes.keySet()) {
-                    int percent = 100 * mapSizes.get(mapId) / pageSizeSum;
-                    pw.printf("map %x: %d bytes, %d%%%n", mapId, mapSizes.get(mapId), percent);
-                }
-                int footerPos = chunk.limit() - Chunk.FOOTER_LENGTH;
-                try {
-                    chunk.position(footerPos);
-                    pw.printf(
-                            "+%0" + len + "x chunkFooter %s%n",
-                            footerPos,
-                            new String(chunk.array(), chunk.position(),
-                                    Chunk.FOOTER_LENGTH, StandardCharsets.ISO_8859_1).trim());
-                } catch (IllegalArgumentException e) {
-                    // too far
-                    pw.printf("ERROR illegal footer position %d%n", footerPos);
-                }
+                pageSizeTotal += printChunks(pending, 2 * threadCount, MAX_PENDING_BYTES, pw, mapSizesTotal);
             }
+            pageSizeTotal += printChunks(pending, 0, 0, pw, mapSizesTotal);
             pw.printf("%n%0" + len + "x eof%n", fileSize);
             pw.printf("\n");
             pageCount = Math.max(1, pageCount);
@@ -325,6 +206,7 @@ public static void dump(String fileName, Writer writer, boolean details) {
             pw.println("ERROR: " + e);
             e.printStackTrace(pw);
         } finally {
+            executor.shutdownNow();
             if (file != null) {
                 try {
                     file.close();
@@ -336,6 +218,238 @@ public static void dump(String fileName, Writer writer, boolean details) {
         pw.flush();
     }
 
+    /**
+     * Dump one chunk. This method may be called concurrently for different
+     * chunks.
+     *
+     * @param file the file
+     * @param pos the position of the chunk
+     * @param c the chunk header
+     * @param p the position of the first page within the chunk
+     * @param len the number of hex digits of a file position
+     * @param details whether to print the page details
+     * @return the text and the page sizes by map
+     */
+    private static ChunkDump dumpChunk(FileChannel file, long pos, Chunk c, int p, int len,
+            boolean details) {
+        StringWriter text = new StringWriter();
+        PrintWriter pw = new PrintWriter(text);
+        TreeMap<Integer, Integer> mapSizes = new TreeMap<>();
+        try {
+            dumpChunk(file, pos, c, p, len, details, pw, mapSizes);
+        } catch (RuntimeException e) {
+            // keep what was printed before the chunk turned out to be corrupt
+            pw.flush();
+            return new ChunkDump(text.toString(), mapSizes, e);
+        }
+        pw.flush();
+        return new ChunkDump(text.toString(), mapSizes, null);
+    }
+
+    /**
+     * Print the pages of one chunk.
+     *
+     * @param file the file
+     * @param pos the position of the chunk
+     * @param c the chunk header
+     * @param p the position of the first page within the chunk
+     * @param len the number of hex digits of a file position
+     * @param details whether to print the page details
+     * @param pw the print writer
+     * @param mapSizes the page sizes by map, updated by this method
+     */
+    private static void dumpChunk(FileChannel file, long pos, Chunk c, int p, int len,
+            boolean details, PrintWriter pw, TreeMap<Integer, Integer> mapSizes) {
+        int length = c.len * MVStore.BLOCK_SIZE;
+        pw.printf("%n%0" + len + "x chunkHeader %s%n",
+                pos, c.toString());
+        ByteBuffer chunk = ByteBuffer.allocate(length);
+        DataUtils.readFully(file, pos, chunk);
+        int remaining = c.pageCount;
+        int pageSizeSum = 0;
+        while (remaining > 0) {
+            int start = p;
+            try {
+                chunk.position(p);
+            } catch (IllegalArgumentException e) {
+                // too far
+                pw.printf("ERROR illegal position %d%n", p);
+                break;
+            }
+            int pageSize = chunk.getInt();
+            // check value (ignored)
+            chunk.getShort();
+            int mapId = DataUtils.readVarInt(chunk);
+            int entries = DataUtils.readVarInt(chunk);
+            int type = chunk.get();
+            boolean compressed = (type & DataUtils.PAGE_COMPRESSED) != 0;
+            boolean node = (type & 1) != 0;
+            if (details) {
+                pw.printf(
+                        "+%0" + len +
+                        "x %s, map %x, %d entries, %d bytes, maxLen %x%n",
+                        p,
+                        (node ? "node" : "leaf") +
+                        (compressed ? " compressed" : ""),
+                        mapId,
+                        node ? entries + 1 : entries,
+                        pageSize,
+                        DataUtils.getPageMaxLength(DataUtils.getPagePos(0, 0, pageSize, 0))
+                        );
+            }
+            p += pageSize;
+            Integer mapSize = mapSizes.get(mapId);
+            if (mapSize == null) {
+                mapSize = 0;
+            }
+            mapSizes.put(mapId, mapSize + pageSize);
+            pageSizeSum += pageSize;
+            remaining--;
+            long[] children = null;
+            long[] counts = null;
+            if (node) {
+                children = new long[entries + 1];
+                for (int i = 0; i <= entries; i++) {
+                    children[i] = chunk.getLong();
+                }
+                counts = new long[entries + 1];
+                for (int i = 0; i <= entries; i++) {
+                    long s = DataUtils.readVarLong(chunk);
+                    counts[i] = s;
+                }
+            }
+            String[] keys = new String[entries];
+            if (mapId == 0 && details) {
+                ByteBuffer data;
+                if (compressed) {
+                    boolean fast = (type & DataUtils.PAGE_COMPRESSED_HIGH) != DataUtils.PAGE_COMPRESSED_HIGH;
+                    Compressor compressor = getCompressor(fast);
+                    int lenAdd = DataUtils.readVarInt(chunk);
+                    int compLen = pageSize + start - chunk.position();
+                    byte[] comp = Utils.newBytes(compLen);
+                    chunk.get(comp);
+                    int l = compLen + lenAdd;
+                    data = ByteBuffer.allocate(l);
+                    compressor.expand(comp, 0, compLen, data.array(), 0, l);
+                } else {
+                    data = chunk;
+                }
+                for (int i = 0; i < entries; i++) {
+                    String k = StringDataType.INSTANCE.read(data);
+                    keys[i] = k;
+                }
+                if (node) {
+                    // meta map node
+                    for (int i = 0; i < entries; i++) {
+                        long cp = children[i];
+                        pw.printf("    %d children < %s @ " +
+                                "chunk %x +%0" +
+                                len + "x%n",
+                                counts[i],
+                                keys[i],
+                                DataUtils.getPageChunkId(cp),
+                                DataUtils.getPageOffset(cp));
+                    }
+                    long cp = children[entries];
+                    pw.printf("    %d children >= %s @ chunk %x +%0" +
+                            len + "x%n",
+                            counts[entries],
+                            keys.length >= entries ? null : keys[entries],
+                            DataUtils.getPageChunkId(cp),
+                            DataUtils.getPageOffset(cp));
+                } else {
+                    // meta map leaf
+                    String[] values = new String[entries];
+                    for (int i = 0; i < entries; i++) {
+                        String v = StringDataType.INSTANCE.read(data);
+                        values[i] = v;
+                    }
+                    for (int i = 0; i < entries; i++) {
+                        pw.println("    " + keys[i] +
+                                " = " + values[i]);
+                    }
+                }
+            } else {
+                if (node && details) {
+                    for (int i = 0; i <= entries; i++) {
+                        long cp = children[i];
+                        pw.printf("    %d children @ chunk %x +%0" +
+                                len + "x%n",
+                                counts[i],
+                                DataUtils.getPageChunkId(cp),
+                                DataUtils.getPageOffset(cp));
+                    }
+                }
+            }
+        }
+        pageSizeSum = Math.max(1, pageSizeSum);
+        for (Integer mapId : mapSizes.keySet()) {
+            int percent = 100 * mapSizes.get(mapId) / pageSizeSum;
+            pw.printf("map %x: %d bytes, %d%%%n", mapId, mapSizes.get(mapId), percent);
+        }
+        int footerPos = chunk.limit() - Chunk.FOOTER_LENGTH;
+        try {
+            chunk.position(footerPos);
+            pw.printf(
+                    "+%0" + len + "x chunkFooter %s%n",
+                    footerPos,
+                    new String(chunk.array(), chunk.position(),
+                            Chunk.FOOTER_LENGTH, StandardCharsets.ISO_8859_1).trim());
+        } catch (IllegalArgumentException e) {
+            // too far
+            pw.printf("ERROR illegal footer position %d%n", footerPos);
+        }
+    }
+
+    /**
+     * Print the dumped chunks in file order, until at most the given number of
+     * chunks, with at most the given total length, is pending.
+     *
+     * @param pending the pending chunks
+     * @param maxPending the number of chunks that may remain pending
+     * @param maxPendingBytes the total length of the chunks that may remain
+     *            pending
+     * @param pw the print writer
+     * @param mapSizesTotal the total page sizes by map
+     * @return the total size of the pages of the printed chunks
+     */
+    private static long printChunks(ArrayDeque<PendingChunk> pending, int maxPending, long maxPendingBytes,
+            PrintWriter pw, TreeMap<Integer, Long> mapSizesTotal) {
+        long pendingBytes = 0;
+        for (PendingChunk c : pending) {
+            pendingBytes += c.length;
+        }
+        long pageSizeTotal = 0;
+        while (pending.size() > maxPending || pendingBytes > maxPendingBytes && !pending.isEmpty()) {
+            PendingChunk c = pending.remove();
+            pendingBytes -= c.length;
+            ChunkDump dump;
+            try {
+                dump = c.future.get();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                } else if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new RuntimeException(cause);
+            }
+            pw.print(dump.text);
+            if (dump.exception != null) {
+                pw.flush();
+                throw dump.exception;
+            }
+            for (Entry<Integer, Integer> e : dump.mapSizes.entrySet()) {
+                mapSizesTotal.merge(e.getKey(), (long) e.getValue(), Long::sum);
+                pageSizeTotal += e.getValue();
+            }
+        }
+        return pageSizeTotal;
+    }
+
     private static Compressor getCompressor(boolean fast) {
         return fast ? new CompressLZF() : new CompressDeflate();
     }
@@ -566,6 +680,69 @@ public static void compact(MVStore source, MVStore target) {
         }
     }
 
+    /**
+     * Apply a backup that was created with
+     * {@link MVStore#backupIncremental(long, OutputStream)}. The file must
+     * contain the state of the backup the given one is based on; for a full
+     * backup, the file may be missing. The store must not be open.
+     *
+     * @param fileName the file name
+     * @param in the backup
+     * @return the version of the backup
+     * @throws IllegalStateException if the file doesn't contain all the
+     *             chunks the backup depends on
+     */
+    public static long restoreIncremental(String fileName, InputStream in) throws IOException {
+        FileStore fs = new FileStore();
+        fs.open(fileName, false, null);
+        try {
+            DataInputStream data = new DataInputStream(in);
+            long version = data.readLong();
+            long fileSize = data.readLong();
+            byte[] header = new byte[2 * MVStore.BLOCK_SIZE];
+            data.readFully(header);
+            // the unchanged chunks come first
+            for (int i = 0, count = data.readInt(); i < count; i++) {
+                Chunk c = new Chunk(data.readInt());
+                c.block = data.readLong();
+                c.len = data.readInt();
+                c.version = data.readLong();
+                if (data.readBoolean()) {
+                    byte[] buff = new byte[c.len * MVStore.BLOCK_SIZE];
+                    data.readFully(buff);
+                    fs.writeFully(c.block * MVStore.BLOCK_SIZE, ByteBuffer.wrap(buff));
+                } else {
+                    verifyChunk(fs, c);
+                }
+            }
+            fs.writeFully(0, ByteBuffer.wrap(header));
+            if (fs.size() > fileSize) {
+                fs.truncate(fileSize);
+            }
+            fs.sync();
+            return version;
+        } finally {
+            fs.close();
+        }
+    }
+
+    private static void verifyChunk(FileStore fs, Chunk c) {
+        long start = c.block * MVStore.BLOCK_SIZE;
+        Chunk old = null;
+        if (start + c.len * MVStore.BLOCK_SIZE <= fs.size()) {
+            try {
+                old = Chunk.readChunkHeader(fs.readFully(start, Chunk.MAX_HEADER_LENGTH), start);
+            } catch (IllegalStateException e) {
+                // not a chunk header
+            }
+        }
+        if (old == null || old.id != c.id || old.version != c.version) {
+            throw DataUtils.newIllegalStateException(DataUtils.ERROR_FILE_CORRUPT,
+                    "Chunk {0} of version {1} is not at block {2}, the backup is based on a different file",
+                    c.id, c.version, c.block);
+        }
+    }
+
     /**
      * Repair a store by rolling back to the newest good version.
      *
@@ -749,4 +926,55 @@ public Object read(ByteBuffer buff) {
             return data;
         }
     }
+
+    /**
+     * A chunk that is being dumped.
+     */
+    private static final class PendingChunk {
+
+        /**
+         * The dump of the chunk.
+         */
+        final Future<ChunkDump> future;
+
+        /**
+         * The length of the chunk in bytes.
+         */
+        final int length;
+
+        PendingChunk(Future<ChunkDump> future, int length) {
+            this.future = future;
+            this.length = length;
+        }
+
+    }
+
+    /**
+     * The dump of a chunk.
+     */
+    private static final class ChunkDump {
+
+        /**
+         * The text to print.
+         */
+        final String text;
+
+        /**
+         * The total page size by map id.
+         */
+        final TreeMap<Integer, Integer> mapSizes;
+
+        /**
+         * The exception that stopped the dump of the chunk, or null.
+         */
+        final RuntimeException exception;
+
+        ChunkDump(String text, TreeMap<Integer, Integer> mapSizes, RuntimeException exception) {
+            this.text = text;
+            this.mapSizes = mapSizes;
+            this.exception = exception;
+        }
+
+    }
+
 }
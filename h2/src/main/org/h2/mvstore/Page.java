@@ -579,11 +579,20 @@ private void read(ByteBuffer buff, int chunkId) {
             }
             int lenAdd = DataUtils.readVarInt(buff);
             int compLen = buff.remaining();
-            byte[] comp = Utils.newBytes(compLen);
-            buff.get(comp);
+            byte[] comp;
+            int compPos;
+            if (buff.hasArray()) {
+                // expand directly from the page buffer
+                comp = buff.array();
+                compPos = buff.arrayOffset() + buff.position();
+            } else {
+                comp = Utils.newBytes(compLen);
+                buff.get(comp);
+                compPos = 0;
+            }
             int l = compLen + lenAdd;
             buff = ByteBuffer.allocate(l);
-            compressor.expand(comp, 0, compLen, buff.array(),
+            compressor.expand(comp, compPos, compLen, buff.array(),
                     buff.arrayOffset(), l);
         }
         map.getKeyType().read(buff, keys, len);
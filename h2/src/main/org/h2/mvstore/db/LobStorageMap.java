@@ -9,6 +9,9 @@
 import java.io.InputStream;
 import java.io.Reader;
 import java.nio.charset.StandardCharsets;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Map.Entry;
@@ -50,7 +53,7 @@ public class LobStorageMap implements LobStorageInterface {
      *
      * Key: lobId (long)
      * Value: { streamStoreId (byte[]), tableId (int),
-     * byteCount (long), hash (long) }.
+     * byteCount (long), hash (byte[], or 0 if not computed) }.
      */
     private MVMap<Long, Object[]> lobMap;
 
@@ -64,6 +67,18 @@ public class LobStorageMap implements LobStorageInterface {
      */
     private MVMap<Object[], Boolean> refMap;
 
+    /**
+     * The hash map. It is used to find the stream of a lob with the same
+     * content if deduplication is enabled. Access to this map, and removal of
+     * streams, are synchronized on the reference map.
+     *
+     * Key: hash (byte[]).
+     * Value: streamStoreId (byte[]).
+     */
+    private MVMap<byte[], byte[]> hashMap;
+
+    private boolean deduplicate;
+
     private StreamStore streamStore;
 
     public LobStorageMap(Database database) {
@@ -86,6 +101,12 @@ public void init() {
         }
         lobMap = mvStore.openMap("lobMap");
         refMap = mvStore.openMap("lobRef");
+        deduplicate = database.getSettings().lobDeduplication;
+        // the map is also needed to remove lobs that were stored with
+        // deduplication enabled before
+        if (deduplicate || mvStore.hasMap("lobHash")) {
+            hashMap = mvStore.openMap("lobHash");
+        }
 
         /* The stream store data map.
          *
@@ -210,6 +231,15 @@ public Value createClob(Reader reader, long maxLength) {
     }
 
     private ValueLobDb createLob(InputStream in, int type) throws IOException {
+        MessageDigest digest = null;
+        if (deduplicate) {
+            try {
+                digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw DbException.convert(e);
+            }
+            in = new DigestInputStream(in, digest);
+        }
         byte[] streamStoreId;
         try {
             streamStoreId = streamStore.put(in);
@@ -219,10 +249,23 @@ private ValueLobDb createLob(InputStream in, int type) throws IOException {
         long lobId = generateLobId();
         long length = streamStore.length(streamStoreId);
         int tableId = LobStorageFrontend.TABLE_TEMP;
-        Object[] value = { streamStoreId, tableId, length, 0 };
-        lobMap.put(lobId, value);
-        Object[] key = { streamStoreId, lobId };
-        refMap.put(key, Boolean.TRUE);
+        // data that is kept inline in the id is not shared
+        if (digest != null && streamStore.getMaxBlockKey(streamStoreId) != -1) {
+            byte[] hash = digest.digest();
+            synchronized (refMap) {
+                byte[] existing = hashMap.putIfAbsent(hash, streamStoreId);
+                if (existing != null && streamStore.length(existing) == length) {
+                    if (TRACE) {
+                        trace("  same stream as " + StringUtils.convertBytesToHex(existing));
+                    }
+                    streamStore.remove(streamStoreId);
+                    streamStoreId = existing;
+                }
+                addLob(lobId, streamStoreId, tableId, length, hash);
+            }
+        } else {
+            addLob(lobId, streamStoreId, tableId, length, 0);
+        }
         ValueLobDb lob = ValueLobDb.create(
                 type, database, tableId, lobId, null, length);
         if (TRACE) {
@@ -231,6 +274,13 @@ private ValueLobDb createLob(InputStream in, int type) throws IOException {
         return lob;
     }
 
+    private void addLob(long lobId, byte[] streamStoreId, int tableId, long length, Object hash) {
+        Object[] value = { streamStoreId, tableId, length, hash };
+        lobMap.put(lobId, value);
+        Object[] key = { streamStoreId, lobId };
+        refMap.put(key, Boolean.TRUE);
+    }
+
     private long generateLobId() {
         synchronized (nextLobIdSync) {
             if (nextLobId == 0) {
@@ -255,14 +305,21 @@ public ValueLobDb copyLob(ValueLobDb old, int tableId, long length) {
         if (oldLength != length) {
             throw DbException.throwInternalError("Length is different");
         }
-        Object[] value = lobMap.get(oldLobId);
-        value = value.clone();
-        byte[] streamStoreId = (byte[]) value[0];
         long lobId = generateLobId();
-        value[1] = tableId;
-        lobMap.put(lobId, value);
-        Object[] key = { streamStoreId, lobId };
-        refMap.put(key, Boolean.TRUE);
+        // the reference is added while removeLob() can't check whether the
+        // stream is still referenced
+        synchronized (refMap) {
+            Object[] value = lobMap.get(oldLobId);
+            if (value == null) {
+                throw DbException.throwInternalError("Lob not found: " + oldLobId);
+            }
+            value = value.clone();
+            byte[] streamStoreId = (byte[]) value[0];
+            value[1] = tableId;
+            lobMap.put(lobId, value);
+            Object[] key = { streamStoreId, lobId };
+            refMap.put(key, Boolean.TRUE);
+        }
         ValueLobDb lob = ValueLobDb.create(
                 type, database, tableId, lobId, null, length);
         if (TRACE) {
@@ -333,26 +390,32 @@ private void removeLob(int tableId, long lobId) {
             return;
         }
         byte[] streamStoreId = (byte[]) value[0];
-        Object[] key = {streamStoreId, lobId };
-        refMap.remove(key);
-        // check if there are more entries for this streamStoreId
-        key = new Object[] {streamStoreId, 0L };
-        value = refMap.ceilingKey(key);
-        boolean hasMoreEntries = false;
-        if (value != null) {
-            byte[] s2 = (byte[]) value[0];
-            if (Arrays.equals(streamStoreId, s2)) {
-                if (TRACE) {
-                    trace("  stream still needed in lob " + value[1]);
+        Object hash = value[3];
+        synchronized (refMap) {
+            Object[] key = {streamStoreId, lobId };
+            refMap.remove(key);
+            // check if there are more entries for this streamStoreId
+            key = new Object[] {streamStoreId, 0L };
+            value = refMap.ceilingKey(key);
+            boolean hasMoreEntries = false;
+            if (value != null) {
+                byte[] s2 = (byte[]) value[0];
+                if (Arrays.equals(streamStoreId, s2)) {
+                    if (TRACE) {
+                        trace("  stream still needed in lob " + value[1]);
+                    }
+                    hasMoreEntries = true;
                 }
-                hasMoreEntries = true;
             }
-        }
-        if (!hasMoreEntries) {
-            if (TRACE) {
-                trace("  remove stream " + StringUtils.convertBytesToHex(streamStoreId));
+            if (!hasMoreEntries) {
+                if (TRACE) {
+                    trace("  remove stream " + StringUtils.convertBytesToHex(streamStoreId));
+                }
+                streamStore.remove(streamStoreId);
+                if (hash instanceof byte[] && hashMap != null) {
+                    hashMap.remove(hash, streamStoreId);
+                }
             }
-            streamStore.remove(streamStoreId);
         }
     }
 
@@ -56,6 +56,11 @@ public void addBufferedRows(List<String> bufferNames) {
         throw DbException.throwInternalError();
     }
 
+    @Override
+    public void addSortedRows(List<Row> rows) {
+        throw DbException.throwInternalError();
+    }
+
     @Override
     public MVMap<Long,VersionedValue<SearchRow>> getMVMap() {
         return mainIndex.getMVMap();
@@ -34,5 +34,14 @@
      */
     void addBufferedRows(List<String> bufferNames);
 
+    /**
+     * Add the rows directly to the empty index. The rows are sorted by the
+     * index columns. This is to more quickly build the index when all the rows
+     * fit in memory.
+     *
+     * @param rows the rows
+     */
+    void addSortedRows(List<Row> rows);
+
     MVMap<K,VersionedValue<V>> getMVMap();
 }
@@ -361,6 +361,11 @@ public void addBufferedRows(List<String> bufferNames) {
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public void addSortedRows(List<Row> rows) {
+        throw new UnsupportedOperationException();
+    }
+
     /**
      * Search for a specific row or a set of rows.
      *
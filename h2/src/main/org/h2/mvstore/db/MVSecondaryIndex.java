@@ -131,14 +131,7 @@ public void addBufferedRows(List<String> bufferNames) {
         try {
             while (!queue.isEmpty()) {
                 Source s = queue.poll();
-                SearchRow row = s.next();
-
-                if (indexType.isUnique() && !mayHaveNullDuplicates(row)) {
-                    checkUnique(dataMap, row, Long.MIN_VALUE);
-                }
-
-                dataMap.putCommitted(row, ValueNull.INSTANCE);
-
+                addSortedRow(s.next());
                 if (s.hasNext()) {
                     queue.offer(s);
                 }
@@ -151,6 +144,20 @@ public void addBufferedRows(List<String> bufferNames) {
         }
     }
 
+    @Override
+    public void addSortedRows(List<Row> rows) {
+        for (Row row : rows) {
+            addSortedRow(convertToKey(row, null));
+        }
+    }
+
+    private void addSortedRow(SearchRow row) {
+        if (indexType.isUnique() && !mayHaveNullDuplicates(row)) {
+            checkUnique(dataMap, row, Long.MIN_VALUE);
+        }
+        dataMap.putCommitted(row, ValueNull.INSTANCE);
+    }
+
     private MVMap<SearchRow,Value> openMap(String mapName) {
         RowDataType keyType = getRowFactory().getRowDataType();
         ValueDataType valueType = new ValueDataType();
@@ -225,9 +232,9 @@ public void remove(Session session, Row row) {
 
     @Override
     public void update(Session session, Row oldRow, Row newRow) {
-        SearchRow searchRowOld = convertToKey(oldRow, null);
-        SearchRow searchRowNew = convertToKey(newRow, null);
-        if (!rowsAreEqual(searchRowOld, searchRowNew)) {
+        // compare the rows directly, the index keys would only contain
+        // copies of the same values
+        if (!rowsAreEqual(oldRow, newRow)) {
             super.update(session, oldRow, newRow);
         }
     }
@@ -11,6 +11,8 @@
 import static org.h2.util.geometry.GeometryUtils.MIN_X;
 import static org.h2.util.geometry.GeometryUtils.MIN_Y;
 
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import org.h2.api.ErrorCode;
@@ -122,6 +124,11 @@ public void addBufferedRows(List<String> bufferNames) {
         throw DbException.throwInternalError();
     }
 
+    @Override
+    public void addSortedRows(List<Row> rows) {
+        throw DbException.throwInternalError();
+    }
+
     @Override
     public void close(Session session) {
         // ok
@@ -129,12 +136,48 @@ public void close(Session session) {
 
     @Override
     public void add(Session session, Row row) {
-        TransactionMap<SpatialKey, Value> map = getMap(session);
         SpatialKey key = getKey(row);
-
         if (key.isNull()) {
             return;
         }
+        add(session, key);
+    }
+
+    /**
+     * Add the rows to the index in Sort-Tile-Recursive order: the keys are
+     * sorted by the x coordinate of their center and split into vertical
+     * slices, and each slice is sorted by the y coordinate. Geometries that
+     * are close to each other are then added one after another, so that the
+     * nodes of the tree overlap less than with random insertion order.
+     *
+     * @param session the session
+     * @param rows the rows, the list is cleared on completion
+     */
+    public void addRows(Session session, List<Row> rows) {
+        SpatialKey[] keys = new SpatialKey[rows.size()];
+        int size = 0;
+        for (Row row : rows) {
+            SpatialKey key = getKey(row);
+            if (!key.isNull()) {
+                keys[size++] = key;
+            }
+        }
+        rows.clear();
+        Arrays.sort(keys, 0, size, Comparator.comparingDouble(k -> (double) k.min(0) + k.max(0)));
+        int keysPerPage = spatialMap.getStore().getKeysPerPage();
+        int sliceCount = (int) Math.ceil(Math.sqrt((double) size / keysPerPage));
+        int sliceSize = Math.max(1, (size + sliceCount - 1) / Math.max(1, sliceCount));
+        for (int i = 0; i < size; i += sliceSize) {
+            Arrays.sort(keys, i, Math.min(size, i + sliceSize),
+                    Comparator.comparingDouble(k -> (double) k.min(1) + k.max(1)));
+        }
+        for (int i = 0; i < size; i++) {
+            add(session, keys[i]);
+        }
+    }
+
+    private void add(Session session, SpatialKey key) {
+        TransactionMap<SpatialKey, Value> map = getMap(session);
 
         if (indexType.isUnique()) {
             // this will detect committed entries only
@@ -453,7 +453,10 @@ private void rebuildIndexBlockMerge(Session session, MVIndex<?,?> index) {
             buffer.clear();
             index.addBufferedRows(bufferNames);
         } else {
-            addRowsToIndex(session, buffer, index);
+            // all rows fit into a single block, add them to the index
+            // directly in sorted order
+            index.addSortedRows(buffer);
+            buffer.clear();
         }
         if (remaining != 0) {
             throw DbException.throwInternalError("rowcount remaining=" + remaining +
@@ -477,17 +480,25 @@ private void rebuildIndexBuffered(Session session, Index index) {
             database.setProgress(DatabaseEventListener.STATE_CREATE_INDEX, n,
                     MathUtils.convertLongToInt(i++), t);
             if (buffer.size() >= bufferSize) {
-                addRowsToIndex(session, buffer, index);
+                addRowsToIndexBuffered(session, buffer, index);
             }
             remaining--;
         }
-        addRowsToIndex(session, buffer, index);
+        addRowsToIndexBuffered(session, buffer, index);
         if (remaining != 0) {
             throw DbException.throwInternalError("rowcount remaining=" + remaining +
                     " " + getName());
         }
     }
 
+    private static void addRowsToIndexBuffered(Session session, ArrayList<Row> list, Index index) {
+        if (index instanceof MVSpatialIndex) {
+            ((MVSpatialIndex) index).addRows(session, list);
+        } else {
+            addRowsToIndex(session, list, index);
+        }
+    }
+
     @Override
     public void removeRow(Session session, Row row) {
         syncLastModificationIdWithDatabase();
@@ -588,6 +599,11 @@ public Index getScanIndex(Session session) {
         return primaryIndex;
     }
 
+    @Override
+    public int getMainIndexColumn() {
+        return primaryIndex.getMainIndexColumn();
+    }
+
     @Override
     public Index getUniqueIndex() {
         return primaryIndex;
@@ -343,6 +343,27 @@ public List<Transaction> getOpenTransactions() {
         return list;
     }
 
+    /**
+     * Get the number of open transactions.
+     *
+     * @return the number of transactions that are not closed
+     */
+    public int getOpenTransactionCount() {
+        if(!init) {
+            init();
+        }
+        int count = 0;
+        int transactionId = 0;
+        BitSet bitSet = openTransactions.get();
+        while((transactionId = bitSet.nextSetBit(transactionId + 1)) > 0) {
+            Transaction transaction = getTransaction(transactionId);
+            if(transaction != null && transaction.getStatus() != Transaction.STATUS_CLOSED) {
+                count++;
+            }
+        }
+        return count;
+    }
+
     /**
      * Close the transaction store.
      */
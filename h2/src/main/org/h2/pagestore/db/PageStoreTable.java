@@ -21,6 +21,7 @@
 import org.h2.message.DbException;
 import org.h2.message.Trace;
 import org.h2.result.Row;
+import org.h2.result.SearchRow;
 import org.h2.schema.SchemaObject;
 import org.h2.table.Column;
 import org.h2.table.IndexColumn;
@@ -127,6 +128,11 @@ public Index getScanIndex(Session session) {
         return indexes.get(0);
     }
 
+    @Override
+    public int getMainIndexColumn() {
+        return mainIndex != null ? mainIndex.getMainIndexColumn() : SearchRow.ROWID_INDEX;
+    }
+
     @Override
     public Index getUniqueIndex() {
         for (Index idx : indexes) {
@@ -6,6 +6,8 @@
 package org.h2.schema;
 
 import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicLong;
+
 import org.h2.api.ErrorCode;
 import org.h2.command.ddl.SequenceOptions;
 import org.h2.engine.DbObject;
@@ -28,14 +30,13 @@ public class Sequence extends SchemaObjectBase {
      */
     public static final int DEFAULT_CACHE_SIZE = 32;
 
-    private long value;
-    private long valueWithMargin;
-    private long increment;
+    /**
+     * The current state. Values within the margin are allocated from it
+     * without locking.
+     */
+    private volatile State state;
     private long cacheSize;
     private long startValue;
-    private long minValue;
-    private long maxValue;
-    private boolean cycle;
     private boolean belongsToTable;
     private boolean writeWithMargin;
 
@@ -74,14 +75,11 @@ public Sequence(Session session, Schema schema, int id, String name, SequenceOpt
                     Long.toString(startValue), Long.toString(minValue), Long.toString(maxValue),
                     Long.toString(increment));
         }
-        this.valueWithMargin = this.value = value;
-        this.increment = increment;
+        this.state = new State(value, value, increment, minValue, maxValue,
+                Boolean.TRUE.equals(options.getCycle()));
         t = options.getCacheSize(session);
         this.cacheSize = t != null ? Math.max(1, t) : DEFAULT_CACHE_SIZE;
         this.startValue = startValue;
-        this.minValue = minValue;
-        this.maxValue = maxValue;
-        this.cycle = Boolean.TRUE.equals(options.getCycle());
         this.belongsToTable = belongsToTable;
     }
 
@@ -104,29 +102,29 @@ public Sequence(Session session, Schema schema, int id, String name, SequenceOpt
      *            the new increment ({@code null} if no change)
      */
     public synchronized void modify(Long startValue, Long restartValue, Long minValue, Long maxValue, Long increment) {
+        State s = state;
         if (startValue == null) {
             startValue = this.startValue;
         }
         if (minValue == null) {
-            minValue = this.minValue;
+            minValue = s.minValue;
         }
         if (maxValue == null) {
-            maxValue = this.maxValue;
+            maxValue = s.maxValue;
         }
         if (increment == null) {
-            increment = this.increment;
+            increment = s.increment;
         }
-        long value = restartValue != null ? restartValue : this.value;
+        long current = s.close();
+        long value = restartValue != null ? restartValue : current;
         if (!isValid(value, startValue, minValue, maxValue, increment)) {
+            s.value.set(current);
             throw DbException.get(ErrorCode.SEQUENCE_ATTRIBUTES_INVALID_6, getName(), String.valueOf(value),
                     String.valueOf(startValue), String.valueOf(minValue), String.valueOf(maxValue),
                     String.valueOf(increment));
         }
-        this.valueWithMargin = this.value = value;
         this.startValue = startValue;
-        this.minValue = minValue;
-        this.maxValue = maxValue;
-        this.increment = increment;
+        state = new State(value, value, increment, minValue, maxValue, s.cycle);
     }
 
     /**
@@ -188,7 +186,7 @@ public boolean getBelongsToTable() {
     }
 
     public long getIncrement() {
-        return increment;
+        return state.increment;
     }
 
     public long getStartValue() {
@@ -196,19 +194,20 @@ public long getStartValue() {
     }
 
     public long getMinValue() {
-        return minValue;
+        return state.minValue;
     }
 
     public long getMaxValue() {
-        return maxValue;
+        return state.maxValue;
     }
 
     public boolean getCycle() {
-        return cycle;
+        return state.cycle;
     }
 
-    public void setCycle(boolean cycle) {
-        this.cycle = cycle;
+    public synchronized void setCycle(boolean cycle) {
+        State s = state;
+        state = new State(s.close(), s.valueWithMargin, s.increment, s.minValue, s.maxValue, cycle);
     }
 
     @Override
@@ -245,8 +244,10 @@ public String getCreateSQL() {
      * @return the SQL statement, or {@code null}
      */
     public synchronized String getCreateSQL(boolean forExport, boolean secondCommand) {
-        long v = !forExport && writeWithMargin ? valueWithMargin : value;
+        State s = state;
+        long v = !forExport && writeWithMargin ? s.valueWithMargin : s.value.get();
         long startValue = this.startValue;
+        long increment = s.increment;
         if (forExport && secondCommand) {
             if (v == startValue) {
                 return null;
@@ -261,13 +262,13 @@ public synchronized String getCreateSQL(boolean forExport, boolean secondCommand
         if (increment != 1) {
             builder.append(" INCREMENT BY ").append(increment);
         }
-        if (minValue != getDefaultMinValue(v, increment)) {
-            builder.append(" MINVALUE ").append(minValue);
+        if (s.minValue != getDefaultMinValue(v, increment)) {
+            builder.append(" MINVALUE ").append(s.minValue);
         }
-        if (maxValue != getDefaultMaxValue(v, increment)) {
-            builder.append(" MAXVALUE ").append(maxValue);
+        if (s.maxValue != getDefaultMaxValue(v, increment)) {
+            builder.append(" MAXVALUE ").append(s.maxValue);
         }
-        if (cycle) {
+        if (s.cycle) {
             builder.append(" CYCLE");
         }
         if (cacheSize != DEFAULT_CACHE_SIZE) {
@@ -290,27 +291,18 @@ public synchronized String getCreateSQL(boolean forExport, boolean secondCommand
      * @return the next value
      */
     public Value getNext(Session session) {
-        boolean needsFlush = false;
         long resultAsLong;
-        synchronized (this) {
-            if ((increment > 0 && value >= valueWithMargin) || (increment < 0 && value <= valueWithMargin)) {
-                valueWithMargin += increment * cacheSize;
-                needsFlush = true;
-            }
-            if ((increment > 0 && value > maxValue) || (increment < 0 && value < minValue)) {
-                if (cycle) {
-                    value = increment > 0 ? minValue : maxValue;
-                    valueWithMargin = value + (increment * cacheSize);
-                    needsFlush = true;
-                } else {
-                    throw DbException.get(ErrorCode.SEQUENCE_EXHAUSTED, getName());
+        while (true) {
+            State s = state;
+            long v = s.value.get();
+            if (s.isWithinMargin(v)) {
+                if (s.value.compareAndSet(v, v + s.increment)) {
+                    resultAsLong = v;
+                    break;
                 }
+            } else if (allocate(s, v)) {
+                flush(session);
             }
-            resultAsLong = value;
-            value += increment;
-        }
-        if (needsFlush) {
-            flush(session);
         }
         Value result;
         if (database.getMode().decimalSequences) {
@@ -324,16 +316,56 @@ public Value getNext(Session session) {
         return result;
     }
 
+    /**
+     * Extend the margin, or restart a cycling sequence, if the next value is
+     * outside of the margin or the range of this sequence.
+     *
+     * @param s the state seen by the caller
+     * @param v the next value seen by the caller
+     * @return whether the sequence needs to be flushed
+     */
+    private synchronized boolean allocate(State s, long v) {
+        if (state != s || s.value.get() != v) {
+            // another thread allocated a value in the meantime
+            return false;
+        }
+        long increment = s.increment;
+        if ((increment > 0 && v > s.maxValue) || (increment < 0 && v < s.minValue)) {
+            if (!s.cycle) {
+                throw DbException.get(ErrorCode.SEQUENCE_EXHAUSTED, getName());
+            }
+            s.close();
+            v = increment > 0 ? s.minValue : s.maxValue;
+            state = new State(v, v + (increment * cacheSize), increment, s.minValue, s.maxValue, true);
+            return true;
+        }
+        if ((increment > 0 && v >= s.valueWithMargin) || (increment < 0 && v <= s.valueWithMargin)) {
+            state = new State(s.close(), s.valueWithMargin + increment * cacheSize, increment, s.minValue,
+                    s.maxValue, s.cycle);
+            return true;
+        }
+        return false;
+    }
+
     /**
      * Flush the current value to disk.
      */
     public void flushWithoutMargin() {
-        if (valueWithMargin != value) {
-            valueWithMargin = value;
+        if (removeMargin()) {
             flush(null);
         }
     }
 
+    private synchronized boolean removeMargin() {
+        State s = state;
+        if (s.value.get() == s.valueWithMargin) {
+            return false;
+        }
+        long v = s.close();
+        state = new State(v, v, s.increment, s.minValue, s.maxValue, s.cycle);
+        return true;
+    }
+
     /**
      * Flush the current value, including the margin, to disk.
      *
@@ -392,7 +424,8 @@ public void removeChildrenAndResources(Session session) {
     }
 
     public synchronized long getCurrentValue() {
-        return value - increment;
+        State s = state;
+        return s.value.get() - s.increment;
     }
 
     public void setBelongsToTable(boolean b) {
@@ -407,4 +440,62 @@ public long getCacheSize() {
         return cacheSize;
     }
 
+    /**
+     * The values that are needed to allocate values without locking. The
+     * state is replaced as a whole when anything except the next value
+     * changes, and the old state is closed, so that a concurrent allocation
+     * uses either the old or the new state, but never a mix of both.
+     */
+    private static final class State {
+
+        /**
+         * The next value.
+         */
+        final AtomicLong value;
+
+        /**
+         * The first value that is not allocated without flushing.
+         */
+        final long valueWithMargin;
+
+        final long increment;
+
+        final long minValue;
+
+        final long maxValue;
+
+        final boolean cycle;
+
+        State(long value, long valueWithMargin, long increment, long minValue, long maxValue, boolean cycle) {
+            this.value = new AtomicLong(value);
+            this.valueWithMargin = valueWithMargin;
+            this.increment = increment;
+            this.minValue = minValue;
+            this.maxValue = maxValue;
+            this.cycle = cycle;
+        }
+
+        /**
+         * Check whether the given value can be allocated without locking.
+         *
+         * @param v the value
+         * @return whether the value is within the margin and the range
+         */
+        boolean isWithinMargin(long v) {
+            return increment > 0 ? v < valueWithMargin && v <= maxValue : v > valueWithMargin && v >= minValue;
+        }
+
+        /**
+         * Stop the allocation of values from this state. The next value is
+         * set to the margin, so that pending compare-and-set operations fail
+         * and new ones are not attempted.
+         *
+         * @return the next value
+         */
+        long close() {
+            return value.getAndSet(valueWithMargin);
+        }
+
+    }
+
 }
@@ -538,7 +538,7 @@ private void process() throws IOException {
                 lobIn.skip(offset);
             }
             // limit the buffer size
-            length = Math.min(16 * Constants.IO_BUFFER_SIZE, length);
+            length = Math.min(Constants.IO_BUFFER_SIZE_LOB_READ, length);
             byte[] buff = new byte[length];
             length = IOUtils.readFully(in, buff, length);
             transfer.writeInt(SessionRemote.STATUS_OK);
@@ -9,6 +9,7 @@
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import org.h2.engine.Constants;
 import org.h2.value.Value;
 import org.h2.value.ValueLobDb;
 
@@ -58,8 +59,10 @@ public InputStream getInputStream(ValueLobDb lob, byte[] hmac,
         if (byteCount < 0) {
             byteCount = Long.MAX_VALUE;
         }
+        // each refill of the buffer is a round trip to the server
+        int bufferSize = (int) Math.max(1, Math.min(byteCount, Constants.IO_BUFFER_SIZE_LOB_READ));
         return new BufferedInputStream(new LobStorageRemoteInputStream(
-                handler, lob, hmac, byteCount));
+                handler, lob, hmac, byteCount), bufferSize);
     }
 
     @Override
@@ -1224,7 +1224,13 @@ public ArrayList<Row> generateRows(Session session, SearchRow first,
                                 "info.CACHE_SIZE", Integer.toString(mvStore.getCacheSizeUsed()));
                         add(session, rows,
                                 "info.CACHE_HIT_RATIO", Integer.toString(mvStore.getCacheHitRatio()));
+                        add(session, rows,
+                                "info.CHUNK_WRITE_COUNT", Long.toString(mvStore.getChunkWriteCount()));
+                        add(session, rows,
+                                "info.PAGE_REWRITE_COUNT", Long.toString(mvStore.getRewrittenPageCount()));
                     }
+                    add(session, rows, "info.OPEN_TRANSACTIONS",
+                            Integer.toString(store.getTransactionStore().getOpenTransactionCount()));
                 }
             }
             break;
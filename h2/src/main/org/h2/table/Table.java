@@ -23,6 +23,7 @@
 import org.h2.engine.Session;
 import org.h2.engine.UndoLogRecord;
 import org.h2.expression.Expression;
+import org.h2.expression.ExpressionColumn;
 import org.h2.expression.ExpressionVisitor;
 import org.h2.index.Index;
 import org.h2.index.IndexType;
@@ -361,6 +362,17 @@ public Column getRowIdColumn() {
         return null;
     }
 
+    /**
+     * Get the id of the column whose values are used as row keys, if any.
+     * Index entries of such a table contain the value of this column even if
+     * the index does not include it.
+     *
+     * @return the column id, or {@link SearchRow#ROWID_INDEX}
+     */
+    public int getMainIndexColumn() {
+        return SearchRow.ROWID_INDEX;
+    }
+
     @Override
     public String getCreateSQLForCopy(Table table, String quotedName) {
         throw DbException.throwInternalError(toString());
@@ -755,6 +767,103 @@ public Column findColumn(String columnName) {
         return columnMap.get(columnName);
     }
 
+    /**
+     * Get the computed column with the same expression as the given one. The
+     * expressions must have the same structure and must refer to the same
+     * columns; the table name or alias the columns of the given expression are
+     * qualified with is ignored. The data type of the column must be the same
+     * as the type of the expression, otherwise the stored values are converted
+     * and may differ from the values of the expression.
+     *
+     * @param filter the table filter the columns of the expression must belong
+     *            to
+     * @param expression the expression
+     * @return the computed column, or null if there is no such column
+     */
+    public Column findComputedColumn(TableFilter filter, Expression expression) {
+        String sql = null;
+        for (Column column : columns) {
+            if (column.getComputed() && column.getType().equals(expression.getType())) {
+                Expression computed = column.getDefaultExpression();
+                ArrayList<String> columnSQL = new ArrayList<>();
+                ArrayList<String> computedColumnSQL = new ArrayList<>();
+                if (matchColumns(filter, expression, computed, columnSQL, computedColumnSQL)) {
+                    if (sql == null) {
+                        sql = expression.getSQL(true);
+                    }
+                    if (computed.getSQL(true).equals(replaceColumns(sql, columnSQL, computedColumnSQL))) {
+                        return column;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Check whether the expressions have the same structure and refer to the
+     * same columns. The SQL of the matching column references is collected.
+     *
+     * @param filter the table filter the columns of the expression must belong
+     *            to
+     * @param expression the expression
+     * @param computed the expression of the computed column
+     * @param columnSQL the SQL of the columns of the expression
+     * @param computedColumnSQL the SQL of the columns of the computed column
+     * @return whether the expressions match
+     */
+    private static boolean matchColumns(TableFilter filter, Expression expression, Expression computed,
+            ArrayList<String> columnSQL, ArrayList<String> computedColumnSQL) {
+        if (expression.getClass() != computed.getClass()) {
+            return false;
+        }
+        if (expression instanceof ExpressionColumn) {
+            ExpressionColumn c = (ExpressionColumn) expression;
+            if (c.getTableFilter() != filter || c.getColumn() != ((ExpressionColumn) computed).getColumn()) {
+                return false;
+            }
+            columnSQL.add(expression.getSQL(true));
+            computedColumnSQL.add(computed.getSQL(true));
+            return true;
+        }
+        int count = expression.getSubexpressionCount();
+        if (count != computed.getSubexpressionCount()) {
+            return false;
+        }
+        for (int i = 0; i < count; i++) {
+            Expression e = expression.getSubexpression(i), c = computed.getSubexpression(i);
+            if (e == null ? c != null
+                    : c == null || !matchColumns(filter, e, c, columnSQL, computedColumnSQL)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Replace the column references in the SQL of an expression, in the order
+     * they appear.
+     *
+     * @param sql the SQL of the expression
+     * @param from the SQL of the column references
+     * @param to the replacements
+     * @return the new SQL, or null if a column reference was not found
+     */
+    private static String replaceColumns(String sql, ArrayList<String> from, ArrayList<String> to) {
+        StringBuilder builder = new StringBuilder(sql.length());
+        int start = 0;
+        for (int i = 0, size = from.size(); i < size; i++) {
+            String s = from.get(i);
+            int index = sql.indexOf(s, start);
+            if (index < 0) {
+                return null;
+            }
+            builder.append(sql, start, index).append(to.get(i));
+            start = index + s.length();
+        }
+        return builder.append(sql, start, sql.length()).toString();
+    }
+
     /**
      * Does the column with the given name exist?
      *
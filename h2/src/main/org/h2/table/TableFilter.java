@@ -1043,6 +1043,9 @@ public Value getValue(Column column) {
             if (v != null) {
                 return v;
             }
+            if (columnId == table.getMainIndexColumn()) {
+                return ValueLong.get(currentSearchRow.getKey()).convertTo(column.getType().getValueType());
+            }
             current = cursor.get();
             if (current == null) {
                 return ValueNull.INSTANCE;
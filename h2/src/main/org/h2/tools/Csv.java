@@ -313,7 +313,7 @@ private void initRead() throws IOException {
             // ignore pseudo-BOM
             input.reset();
         }
-        inputBuffer = new char[Constants.IO_BUFFER_SIZE * 2];
+        inputBuffer = new char[Constants.IO_BUFFER_SIZE * 16];
         if (columnNames == null) {
             readHeader();
         }
@@ -393,7 +393,9 @@ private int readBuffer() throws IOException {
             keep = 0;
         }
         inputBufferPos = keep;
-        int len = input.read(inputBuffer, keep, Constants.IO_BUFFER_SIZE);
+        // fill the whole rest of the buffer, so that fewer reads are needed
+        // and less data needs to be moved to the front of the buffer
+        int len = input.read(inputBuffer, keep, inputBuffer.length - keep);
         if (len == -1) {
             // ensure bufferPos > bufferEnd
             // even after pushBack
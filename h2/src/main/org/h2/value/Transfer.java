@@ -42,6 +42,12 @@ public class Transfer {
     private static final int LOB_MAGIC = 0x1234;
     private static final int LOB_MAC_SALT_LENGTH = 16;
 
+    /**
+     * The number of characters of a string that are encoded or decoded at
+     * once, that is 4 KB.
+     */
+    private static final int STRING_BLOCK_CHARS = 2 * 1024;
+
     private static final int NULL = 0;
     private static final int BOOLEAN = 1;
     private static final int BYTE = 2;
@@ -97,6 +103,9 @@ public Transfer(SessionInterface session, Socket s) {
      */
     public synchronized void init() throws IOException {
         if (socket != null) {
+            // the protocol is request / response and flushes whole messages,
+            // so Nagle's algorithm would only delay the last segment
+            socket.setTcpNoDelay(true);
             in = new DataInputStream(
                     new BufferedInputStream(
                             socket.getInputStream(), Transfer.BUFFER_SIZE));
@@ -243,8 +252,20 @@ public Transfer writeString(String s) throws IOException {
         if (s == null) {
             out.writeInt(-1);
         } else {
-            out.writeInt(s.length());
-            out.writeChars(s);
+            int len = s.length();
+            out.writeInt(len);
+            // same encoding as DataOutputStream.writeChars, but one write per
+            // block
+            byte[] buff = new byte[Math.min(len, STRING_BLOCK_CHARS) * 2];
+            for (int i = 0; i < len;) {
+                int j = 0;
+                for (int end = i + Math.min(len - i, STRING_BLOCK_CHARS); i < end; i++) {
+                    char c = s.charAt(i);
+                    buff[j++] = (byte) (c >>> 8);
+                    buff[j++] = (byte) c;
+                }
+                out.write(buff, 0, j);
+            }
         }
         return this;
     }
@@ -259,11 +280,16 @@ public String readString() throws IOException {
         if (len == -1) {
             return null;
         }
-        StringBuilder buff = new StringBuilder(len);
-        for (int i = 0; i < len; i++) {
-            buff.append(in.readChar());
+        char[] chars = new char[len];
+        byte[] buff = new byte[Math.min(len, STRING_BLOCK_CHARS) * 2];
+        for (int i = 0; i < len;) {
+            int n = Math.min(len - i, STRING_BLOCK_CHARS) * 2;
+            in.readFully(buff, 0, n);
+            for (int j = 0; j < n; j += 2) {
+                chars[i++] = (char) (((buff[j] & 0xff) << 8) | (buff[j + 1] & 0xff));
+            }
         }
-        String s = buff.toString();
+        String s = new String(chars);
         s = StringUtils.cache(s);
         return s;
     }
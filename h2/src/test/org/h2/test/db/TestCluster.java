@@ -48,6 +48,7 @@ public void test() throws Exception {
         testClob();
         testRecover();
         testRollback();
+        testAutoCommit();
         testCase();
         testClientInfo();
         testCreateClusterAtRuntime();
@@ -196,6 +197,63 @@ private void testRollback() throws SQLException {
         deleteFiles();
     }
 
+    private void testAutoCommit() throws SQLException {
+        deleteFiles();
+
+        org.h2.Driver.load();
+        String user = getUser(), password = getPassword();
+
+        Server n1 = org.h2.tools.Server.createTcpServer("-ifNotExists", "-baseDir", getBaseDir() + "/node1").start();
+        int port1 = n1.getPort();
+        Server n2 = org.h2.tools.Server.createTcpServer("-ifNotExists", "-baseDir", getBaseDir() + "/node2").start();
+        int port2 = n2.getPort();
+
+        String url1 = getURL("jdbc:h2:tcp://localhost:" + port1 + "/test", true);
+        String url2 = getURL("jdbc:h2:tcp://localhost:" + port2 + "/test", true);
+        String serverList = "localhost:" + port1 + ",localhost:" + port2;
+        String urlCluster = getURL("jdbc:h2:tcp://" + serverList + "/test;AUTO_RECONNECT=TRUE", true);
+
+        CreateCluster.main("-urlSource", url1, "-urlTarget", url2,
+                "-user", user, "-password", password, "-serverList",
+                serverList);
+
+        Connection conn = getConnection(urlCluster, user, password);
+        Statement stat = conn.createStatement();
+        stat.execute("create table test(id int primary key)");
+        stat.execute("insert into test values(1)");
+        // the other connection only sees committed rows
+        Connection conn2 = getConnection(urlCluster, user, password);
+        checkCount(conn2, 1);
+        conn2.close();
+
+        // the commit is still sent to the remaining server
+        n2.stop();
+        stat.execute("insert into test values(2)");
+        stat.execute("insert into test values(3)");
+        conn2 = getConnection(urlCluster, user, password);
+        checkCount(conn2, 3);
+        conn2.close();
+
+        // re-connect and commit
+        n1.stop();
+        n1 = org.h2.tools.Server.createTcpServer("-tcpPort", "" + port1, "-baseDir", getBaseDir() + "/node1")
+                .start();
+        stat.execute("insert into test values(4)");
+        conn2 = getConnection(urlCluster, user, password);
+        checkCount(conn2, 4);
+        conn2.close();
+        conn.close();
+
+        n1.stop();
+        deleteFiles();
+    }
+
+    private void checkCount(Connection conn, int expected) throws SQLException {
+        ResultSet rs = conn.createStatement().executeQuery("select count(*) from test");
+        rs.next();
+        assertEquals(expected, rs.getInt(1));
+    }
+
     private void testCase() throws SQLException {
         deleteFiles();
 
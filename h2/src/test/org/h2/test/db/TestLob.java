@@ -30,6 +30,8 @@
 import org.h2.engine.SysProperties;
 import org.h2.jdbc.JdbcConnection;
 import org.h2.message.DbException;
+import org.h2.mvstore.MVMap;
+import org.h2.mvstore.MVStore;
 import org.h2.store.fs.FileUtils;
 import org.h2.test.TestBase;
 import org.h2.test.TestDb;
@@ -116,6 +118,7 @@ public void test() throws Exception {
         testLob(true);
         testJavaObject();
         testLobGrowth();
+        testLobDeduplication();
         testLobInValueResultSet();
         deleteDb("lob");
     }
@@ -1691,6 +1694,55 @@ private static String randomUnicodeString(Random rand) {
         return new String(buffer);
     }
 
+    private void testLobDeduplication() throws SQLException {
+        if (config.memory || config.cipher != null || !config.mvStore) {
+            return;
+        }
+        deleteDb("lob");
+        String url = "lob;LOB_DEDUPLICATION=TRUE";
+        try (Connection conn = getConnection(url)) {
+            Statement stat = conn.createStatement();
+            stat.execute("CREATE TABLE TEST(ID INT PRIMARY KEY, DATA BLOB)");
+            PreparedStatement prep = conn.prepareStatement("INSERT INTO TEST VALUES(?, ?)");
+            byte[] data = new byte[10000];
+            for (int i = 1; i <= 10; i++) {
+                prep.setInt(1, i);
+                prep.setBinaryStream(2, new ByteArrayInputStream(data));
+                prep.executeUpdate();
+            }
+            data[0] = 1;
+            prep.setInt(1, 11);
+            prep.setBinaryStream(2, new ByteArrayInputStream(data));
+            prep.executeUpdate();
+        }
+        String fileName = getBaseDir() + "/lob.mv.db";
+        try (MVStore s = MVStore.open(fileName)) {
+            MVMap<Long, byte[]> lobData = s.openMap("lobData");
+            assertEquals(2, lobData.sizeAsLong());
+            MVMap<Object[], Boolean> lobRef = s.openMap("lobRef");
+            assertEquals(11, lobRef.sizeAsLong());
+            MVMap<byte[], byte[]> lobHash = s.openMap("lobHash");
+            assertEquals(2, lobHash.sizeAsLong());
+        }
+        try (Connection conn = getConnection(url)) {
+            Statement stat = conn.createStatement();
+            stat.execute("DELETE FROM TEST WHERE ID < 10");
+            ResultSet rs = stat.executeQuery("SELECT DATA FROM TEST ORDER BY ID");
+            assertTrue(rs.next());
+            assertEquals(0, rs.getBytes(1)[0]);
+            assertTrue(rs.next());
+            assertEquals(1, rs.getBytes(1)[0]);
+            assertFalse(rs.next());
+            stat.execute("DROP TABLE TEST");
+        }
+        try (MVStore s = MVStore.open(fileName)) {
+            MVMap<Long, byte[]> lobData = s.openMap("lobData");
+            assertEquals(0, lobData.sizeAsLong());
+            MVMap<byte[], byte[]> lobHash = s.openMap("lobHash");
+            assertEquals(0, lobHash.sizeAsLong());
+        }
+    }
+
     private void testLobGrowth() throws SQLException {
         if (config.mvStore) {
             return;
@@ -1158,11 +1158,12 @@ private void testUseCoveringIndex() throws SQLException {
                 "FROM table_b b JOIN table_a a ON b.table_a_id = a.id GROUP BY b.table_a_id " +
                 "HAVING A.ACTIVE = TRUE");
         rs.next();
-        assertContains(rs.getString(1), "/* PUBLIC.TABLE_B_IDX: TABLE_A_ID = A.ID */");
+        // the index of the foreign key also contains the primary key values
+        assertContains(rs.getString(1), "/* PUBLIC.CONSTRAINT_INDEX_C: TABLE_A_ID = A.ID */");
 
         rs = stat.executeQuery("EXPLAIN ANALYZE SELECT MAX(id) FROM table_b GROUP BY table_a_id");
         rs.next();
-        assertContains(rs.getString(1), "/* PUBLIC.TABLE_B_IDX");
+        assertContains(rs.getString(1), "/* PUBLIC.CONSTRAINT_INDEX_C");
         conn.close();
     }
 
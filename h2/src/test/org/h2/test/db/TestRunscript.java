@@ -5,6 +5,9 @@
  */
 package org.h2.test.db;
 
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -58,6 +61,8 @@ public void test() throws Exception {
         testCancelScript();
         testEncoding();
         testClobPrimaryKey();
+        testErrorInLongScript();
+        testLargeStatements();
         deleteDb("runscript");
     }
 
@@ -437,6 +442,56 @@ private void testClobPrimaryKey() throws SQLException {
         FileUtils.delete(getBaseDir() + "/backup.sql");
     }
 
+    private void testErrorInLongScript() throws Exception {
+        deleteDb("runscript");
+        String fileName = getBaseDir() + "/backup.sql";
+        try (Writer w = new OutputStreamWriter(FileUtils.newOutputStream(fileName, false),
+                StandardCharsets.UTF_8)) {
+            w.write("create table test(id int primary key);\n");
+            for (int i = 0; i < 2000; i++) {
+                // the statements are read ahead while they are executed
+                w.write("insert into test values(" + (i == 1000 ? 1 : i) + ");\n");
+            }
+        }
+        Connection conn = getConnection("runscript");
+        Statement stat = conn.createStatement();
+        assertThrows(ErrorCode.DUPLICATE_KEY_1, stat).execute("runscript from '" + fileName + "'");
+        ResultSet rs = stat.executeQuery("select count(*) from test");
+        rs.next();
+        assertEquals(1000, rs.getInt(1));
+        conn.close();
+        FileUtils.delete(fileName);
+    }
+
+    private void testLargeStatements() throws Exception {
+        deleteDb("runscript");
+        String fileName = getBaseDir() + "/backup.sql";
+        int[] lengths = { 3_000_000, 3_000_000, 5_000_000, 10 };
+        try (Writer w = new OutputStreamWriter(FileUtils.newOutputStream(fileName, false),
+                StandardCharsets.UTF_8)) {
+            w.write("create table test(id int primary key, data varchar);\n");
+            for (int i = 0; i < lengths.length; i++) {
+                // only a limited number of characters is read ahead
+                w.write("insert into test values(" + i + ", '");
+                for (int j = 0; j < lengths[i]; j++) {
+                    w.write('a');
+                }
+                w.write("');\n");
+            }
+        }
+        Connection conn = getConnection("runscript");
+        Statement stat = conn.createStatement();
+        stat.execute("runscript from '" + fileName + "'");
+        ResultSet rs = stat.executeQuery("select length(data) from test order by id");
+        for (int length : lengths) {
+            assertTrue(rs.next());
+            assertEquals(length, rs.getInt(1));
+        }
+        assertFalse(rs.next());
+        conn.close();
+        FileUtils.delete(fileName);
+    }
+
     private void test(boolean password) throws SQLException {
         deleteDb("runscript");
         Connection conn1, conn2;
@@ -13,6 +13,7 @@
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 import org.h2.api.Trigger;
 import org.h2.test.TestBase;
 import org.h2.test.TestDb;
@@ -36,6 +37,7 @@ public static void main(String... a) throws Exception {
     public void test() throws Exception {
         testConcurrentCreate();
         testConcurrentNextAndCurrentValue();
+        testConcurrentNextAndRestart();
         testSchemaSearchPath();
         testAlterSequenceColumn();
         testAlterSequence();
@@ -165,6 +167,70 @@ public void call() throws Exception {
         }
     }
 
+    private void testConcurrentNextAndRestart() throws Exception {
+        deleteDb("sequence");
+        final String url = getURL("sequence", true);
+        Connection conn = getConnection(url);
+        Task[] tasks = new Task[4];
+        long range = 100_000_000, maxValue;
+        try {
+            Statement stat = conn.createStatement();
+            stat.execute("SET WRITE_DELAY 0");
+            stat.execute("CREATE SEQUENCE SEQ START WITH " + 10 * range);
+            // the maximum value issued since the last restart
+            AtomicLong lastValue = new AtomicLong();
+            for (int i = 0; i < tasks.length; i++) {
+                tasks[i] = new Task() {
+                    @Override
+                    public void call() throws Exception {
+                        try (Connection conn = getConnection(url)) {
+                            PreparedStatement next = conn.prepareStatement("CALL NEXT VALUE FOR SEQ");
+                            while (!stop) {
+                                try (ResultSet rs = next.executeQuery()) {
+                                    rs.next();
+                                    long v = rs.getLong(1);
+                                    if (v < 2 * range) {
+                                        lastValue.accumulateAndGet(v, Math::max);
+                                    }
+                                }
+                            }
+                        }
+                    }
+                }.execute();
+            }
+            // restart with lower values while the other sessions get values
+            for (int i = 9; i > 0; i--) {
+                Thread.sleep(20);
+                stat.execute("ALTER SEQUENCE SEQ RESTART WITH " + i * range);
+            }
+            Thread.sleep(20);
+            for (Task t : tasks) {
+                t.get();
+            }
+            maxValue = lastValue.get();
+        } finally {
+            for (Task t : tasks) {
+                t.join();
+            }
+        }
+        if (config.memory) {
+            conn.close();
+            return;
+        }
+        conn.createStatement().execute("SHUTDOWN IMMEDIATELY");
+        try {
+            conn.close();
+        } catch (SQLException e) {
+            // expected
+        }
+        // the values issued since the last restart are not issued again
+        conn = getConnection(url);
+        ResultSet rs = conn.createStatement().executeQuery("CALL NEXT VALUE FOR SEQ");
+        rs.next();
+        assertTrue(rs.getLong(1) > maxValue);
+        conn.close();
+    }
+
     private void testSchemaSearchPath() throws SQLException {
         deleteDb("sequence");
         Connection conn = getConnection("sequence");
@@ -101,6 +101,7 @@ private void testSpatial() throws SQLException {
         testIndexUpdateNullGeometry();
         testInsertNull();
         testSpatialIndexWithOrder();
+        testSpatialIndexOnExistingRows();
     }
 
     private void testBug1() throws SQLException {
@@ -1201,4 +1202,31 @@ private void testSpatialIndexWithOrder() throws SQLException {
         }
         deleteDb("spatial");
     }
+
+    private void testSpatialIndexOnExistingRows() throws SQLException {
+        deleteDb("spatial");
+        try (Connection conn = getConnection(URL)) {
+            Statement stat = conn.createStatement();
+            stat.execute("CREATE TABLE TEST(ID INT PRIMARY KEY, G GEOMETRY)");
+            stat.execute("INSERT INTO TEST SELECT X, CASE WHEN MOD(X, 100) = 0 THEN NULL ELSE "
+                    + "CAST('POINT(' || MOD(X * 7919, 1000) || ' ' || MOD(X * 104729, 1000) || ')' AS GEOMETRY) END "
+                    + "FROM SYSTEM_RANGE(1, 20000)");
+            stat.execute("CREATE SPATIAL INDEX IDX_TEST_G ON TEST(G)");
+            String window = "'POLYGON((100 100, 300 100, 300 250, 100 250, 100 100))'";
+            ResultSet rs = stat.executeQuery("EXPLAIN SELECT COUNT(*) FROM TEST WHERE G && " + window);
+            rs.next();
+            assertContains(rs.getString(1), "IDX_TEST_G");
+            rs = stat.executeQuery("SELECT COUNT(*) FROM TEST WHERE G && " + window);
+            rs.next();
+            int count = rs.getInt(1);
+            rs = stat.executeQuery("SELECT COUNT(*) FROM TEST USE INDEX (PRIMARY_KEY_2) WHERE G && " + window);
+            rs.next();
+            assertEquals(rs.getInt(1), count);
+            assertTrue(count > 0);
+            rs = stat.executeQuery("SELECT COUNT(*) FROM TEST WHERE G IS NOT NULL");
+            rs.next();
+            assertEquals(19800, rs.getInt(1));
+        }
+        deleteDb("spatial");
+    }
 }
@@ -21,6 +21,7 @@
 import org.h2.engine.SysProperties;
 import org.h2.test.TestBase;
 import org.h2.test.TestDb;
+import org.h2.util.Task;
 import org.h2.value.DataType;
 
 /**
@@ -40,7 +41,7 @@ public static void main(String... a) throws Exception {
     }
 
     @Override
-    public void test() throws SQLException {
+    public void test() throws Exception {
         deleteDb("metaData");
         testUnwrap();
         testUnsupportedOperations();
@@ -61,6 +62,7 @@ public void test() throws SQLException {
         testSessionsUncommitted();
         testQueryStatistics();
         testQueryStatisticsLimit();
+        testQueryStatisticsConcurrent();
     }
 
     private void testUnwrap() throws SQLException {
@@ -1386,4 +1388,67 @@ private void testQueryStatisticsLimit() throws SQLException {
         conn.close();
         deleteDb("metaData");
     }
+
+    private void testQueryStatisticsConcurrent() throws Exception {
+        deleteDb("metaData");
+        Connection conn = getConnection("metaData");
+        Statement stat = conn.createStatement();
+        stat.execute("create table test(id int primary key, name varchar) as " +
+                "select x, 'Hello' from system_range(1, 100)");
+        stat.execute("SET QUERY_STATISTICS TRUE");
+        int threadCount = 4, count = 250;
+        Task[] tasks = new Task[threadCount];
+        for (int i = 0; i < threadCount; i++) {
+            tasks[i] = new Task() {
+                @Override
+                public void call() throws Exception {
+                    try (Connection c = getConnection("metaData")) {
+                        PreparedStatement prep = c.prepareStatement("select name from test where id = ?");
+                        for (int j = 0; j < count; j++) {
+                            prep.setInt(1, j % 100 + 1);
+                            prep.executeQuery().close();
+                        }
+                    }
+                }
+            }.execute();
+        }
+        for (Task t : tasks) {
+            t.get();
+        }
+        ResultSet rs = stat.executeQuery("select execution_count, cumulative_row_count " +
+                "from INFORMATION_SCHEMA.QUERY_STATISTICS " +
+                "where sql_statement = 'select name from test where id = ?'");
+        assertTrue(rs.next());
+        assertEquals(threadCount * count, rs.getInt(1));
+        assertEquals(config.lazy ? 0 : threadCount * count, rs.getInt(2));
+        assertFalse(rs.next());
+
+        // more distinct statements than the limit, so the oldest entries are
+        // removed while other sessions update them
+        int maxEntries = 100, statementCount = 400;
+        stat.execute("SET QUERY_STATISTICS_MAX_ENTRIES " + maxEntries);
+        threadCount = 8;
+        tasks = new Task[threadCount];
+        for (int i = 0; i < threadCount; i++) {
+            tasks[i] = new Task() {
+                @Override
+                public void call() throws Exception {
+                    try (Connection c = getConnection("metaData")) {
+                        Statement s = c.createStatement();
+                        for (int j = 0; j < statementCount * 2; j++) {
+                            s.executeQuery("select name from test where id = " + j % statementCount).close();
+                        }
+                    }
+                }
+            }.execute();
+        }
+        for (Task t : tasks) {
+            t.get();
+        }
+        rs = stat.executeQuery("select count(*) from INFORMATION_SCHEMA.QUERY_STATISTICS");
+        assertTrue(rs.next());
+        assertEquals(maxEntries, rs.getInt(1));
+        conn.close();
+        deleteDb("metaData");
+    }
 }
@@ -1059,7 +1059,8 @@ private void testLikeIndex(Connection conn) throws SQLException {
         ResultSet rs = prep.executeQuery();
         rs.next();
         String plan = rs.getString(1);
-        assertContains(plan, ".tableScan");
+        // no index condition, but IDXNAME also contains ID and covers the query
+        assertContains(plan, "/* PUBLIC.IDXNAME */");
         rs = prepExe.executeQuery();
         rs.next();
         assertEquals("World", rs.getString(2));
@@ -39,6 +39,7 @@ public static void main(String... a) throws Exception {
     public void test() throws Exception {
         deleteDb("connectionPool");
         testShutdown();
+        testRecycledAfterShutdown();
         testWrongUrl();
         testTimeout();
         testUncommittedTransaction();
@@ -65,6 +66,24 @@ private void testShutdown() throws SQLException {
         cp.dispose();
     }
 
+    private void testRecycledAfterShutdown() throws SQLException {
+        String url = getURL("connectionPool2", true), user = getUser();
+        String password = getPassword();
+        JdbcConnectionPool cp = JdbcConnectionPool.create(url, user, password);
+        cp.setLogWriter(new PrintWriter(new StringWriter()));
+        Connection conn1 = cp.getConnection();
+        Connection conn2 = cp.getConnection();
+        conn1.close();
+        conn2.createStatement().execute("shutdown immediately");
+        conn2.close();
+        // the recycled connections are closed, new ones must be opened
+        Connection conn3 = cp.getConnection();
+        conn3.createStatement().execute("select 1");
+        conn3.close();
+        assertEquals(0, cp.getActiveConnections());
+        cp.dispose();
+    }
+
     private void testWrongUrl() {
         JdbcConnectionPool cp = JdbcConnectionPool.create(
                 "jdbc:wrong:url", "", "");
@@ -305,6 +305,29 @@ select 1 from test group by x;
 drop table test;
 > ok
 
+CREATE TABLE TEST(A INT, B INT);
+> ok
+
+CREATE HASH INDEX TEST_A_IDX ON TEST(A);
+> ok
+
+INSERT INTO TEST VALUES (2, 1), (1, 2), (3, 3);
+> update count: 3
+
+EXPLAIN SELECT A FROM TEST ORDER BY A;
+>> SELECT "A" FROM "PUBLIC"."TEST" /* PUBLIC.TEST_A_IDX */ ORDER BY 1 /* index sorted */
+
+SELECT A FROM TEST ORDER BY A;
+> A
+> -
+> 1
+> 2
+> 3
+> rows (ordered): 3
+
+DROP TABLE TEST;
+> ok
+
 CREATE TABLE TEST(A INT, B INT, C INT);
 > ok
 
@@ -363,6 +386,31 @@ EXPLAIN SELECT * FROM T WHERE A = 1 AND B = A;
 DROP TABLE T;
 > ok
 
+CREATE TABLE TEST(ID SMALLINT PRIMARY KEY, V INT, W INT);
+> ok
+
+CREATE INDEX TEST_V_IDX ON TEST(V);
+> ok
+
+INSERT INTO TEST VALUES (1, 10, 100), (2, 20, 200), (3, 10, 300);
+> update count: 3
+
+SELECT ID, V FROM TEST WHERE V = 10 ORDER BY ID;
+> ID V
+> -- --
+> 1  10
+> 3  10
+> rows (ordered): 2
+
+SELECT ID + 1, W FROM TEST WHERE V = 20;
+> ID + 1 W
+> ------ ---
+> 3      200
+> rows: 1
+
+DROP TABLE TEST;
+> ok
+
 -- _ROWID_ tests
 
 CREATE TABLE TEST(ID INT PRIMARY KEY);
@@ -410,3 +458,101 @@ SELECT * FROM TEST WHERE _ROWID_ >= 2 AND _ROWID_ <= 3;
 
 DROP TABLE TEST;
 > ok
+
+CREATE TABLE TEST(ID INT PRIMARY KEY, EMAIL VARCHAR, EMAIL_LOWER VARCHAR AS LOWER(EMAIL));
+> ok
+
+CREATE INDEX TEST_EMAIL_LOWER_IDX ON TEST(EMAIL_LOWER);
+> ok
+
+INSERT INTO TEST(ID, EMAIL) VALUES (1, 'A@Example.com'), (2, 'b@example.com'), (3, 'C@EXAMPLE.COM');
+> update count: 3
+
+EXPLAIN SELECT ID FROM TEST WHERE LOWER(EMAIL) = 'c@example.com';
+>> SELECT "ID" FROM "PUBLIC"."TEST" /* PUBLIC.TEST_EMAIL_LOWER_IDX: EMAIL_LOWER = 'c@example.com' */ WHERE LOWER("EMAIL") = 'c@example.com'
+
+SELECT ID FROM TEST WHERE LOWER(EMAIL) = 'c@example.com';
+>> 3
+
+SELECT ID FROM TEST WHERE 'a@example.com' = LOWER(EMAIL);
+>> 1
+
+SELECT ID FROM TEST WHERE LOWER(EMAIL) > 'a@example.com' ORDER BY ID;
+> ID
+> --
+> 2
+> 3
+> rows (ordered): 2
+
+EXPLAIN SELECT ID FROM TEST WHERE UPPER(EMAIL) = 'C@EXAMPLE.COM';
+>> SELECT "ID" FROM "PUBLIC"."TEST" /* PUBLIC.TEST.tableScan */ WHERE UPPER("EMAIL") = 'C@EXAMPLE.COM'
+
+EXPLAIN SELECT ID FROM TEST WHERE LOWER(TEST.EMAIL) = 'c@example.com';
+>> SELECT "ID" FROM "PUBLIC"."TEST" /* PUBLIC.TEST_EMAIL_LOWER_IDX: EMAIL_LOWER = 'c@example.com' */ WHERE LOWER("TEST"."EMAIL") = 'c@example.com'
+
+SELECT ID FROM TEST WHERE LOWER(TEST.EMAIL) = 'c@example.com';
+>> 3
+
+EXPLAIN SELECT X.ID FROM TEST X WHERE LOWER(X.EMAIL) = 'c@example.com';
+>> SELECT "X"."ID" FROM "PUBLIC"."TEST" "X" /* PUBLIC.TEST_EMAIL_LOWER_IDX: EMAIL_LOWER = 'c@example.com' */ WHERE LOWER("X"."EMAIL") = 'c@example.com'
+
+SELECT X.ID FROM TEST X WHERE LOWER(X.EMAIL) = 'c@example.com';
+>> 3
+
+EXPLAIN SELECT X.ID FROM TEST X, TEST Y WHERE LOWER(Y.EMAIL) = 'c@example.com' AND X.ID = Y.ID;
+>> SELECT "X"."ID" FROM "PUBLIC"."TEST" "Y" /* PUBLIC.TEST_EMAIL_LOWER_IDX: EMAIL_LOWER = 'c@example.com' */ /* WHERE LOWER(Y.EMAIL) = 'c@example.com' */ INNER JOIN "PUBLIC"."TEST" "X" /* PUBLIC.PRIMARY_KEY_2: ID = Y.ID */ ON 1=1 WHERE ("X"."ID" = "Y"."ID") AND (LOWER("Y"."EMAIL") = 'c@example.com')
+
+DROP TABLE TEST;
+> ok
+
+CREATE TABLE TEST(ID INT PRIMARY KEY, D DECIMAL(10, 2), C INT AS (D / 2));
+> ok
+
+CREATE INDEX TEST_C_IDX ON TEST(C);
+> ok
+
+INSERT INTO TEST(ID, D) VALUES (1, 3);
+> update count: 1
+
+EXPLAIN SELECT ID FROM TEST WHERE D / 2 = 1.5;
+>> SELECT "ID" FROM "PUBLIC"."TEST" /* PUBLIC.TEST.tableScan */ WHERE ("D" / 2) = 1.5
+
+SELECT ID FROM TEST WHERE D / 2 = 1.5;
+>> 1
+
+DROP TABLE TEST;
+> ok
+
+CREATE TABLE TEST(ID INT PRIMARY KEY, V INT) AS SELECT X, MOD(X * 7, 10) FROM SYSTEM_RANGE(1, 10);
+> ok
+
+CREATE UNIQUE INDEX TEST_V_IDX ON TEST(V);
+> ok
+
+SELECT ID FROM TEST WHERE V = 3;
+>> 9
+
+INSERT INTO TEST VALUES (11, 3);
+> exception DUPLICATE_KEY_1
+
+DROP INDEX TEST_V_IDX;
+> ok
+
+INSERT INTO TEST VALUES (11, 3);
+> update count: 1
+
+CREATE UNIQUE INDEX TEST_V_IDX ON TEST(V);
+> exception DUPLICATE_KEY_1
+
+CREATE INDEX TEST_V_IDX ON TEST(V);
+> ok
+
+SELECT ID FROM TEST WHERE V = 3 ORDER BY ID;
+> ID
+> --
+> 9
+> 11
+> rows (ordered): 2
+
+DROP TABLE TEST;
+> ok
@@ -113,3 +113,48 @@ SELECT (1, 1) IN (VALUES (NULL, 1));
 
 SELECT (1, 1) IN (TABLE(X INT=(), Y INT=()));
 >> FALSE
+
+CREATE TABLE TEST(A INT, B INT);
+> ok
+
+INSERT INTO TEST VALUES (1, 1), (1, 2), (2, NULL), (NULL, 1), (NULL, NULL);
+> update count: 5
+
+SELECT A, B FROM TEST WHERE A = 1 AND B <> 2;
+> A B
+> - -
+> 1 1
+> rows: 1
+
+SELECT A, B FROM TEST WHERE A > 1 OR B < 2 ORDER BY A, B;
+> A    B
+> ---- ----
+> null 1
+> 1    1
+> 2    null
+> rows (ordered): 3
+
+SELECT A, B FROM TEST WHERE A <= B OR A IS NOT DISTINCT FROM B ORDER BY A, B;
+> A    B
+> ---- ----
+> null null
+> 1    1
+> 1    2
+> rows (ordered): 3
+
+SELECT A, B FROM TEST WHERE A IS DISTINCT FROM B AND A >= 1 ORDER BY A, B;
+> A B
+> - ----
+> 1 2
+> 2 null
+> rows (ordered): 2
+
+SELECT A, B FROM TEST WHERE NOT (A = 2 AND B = 1) ORDER BY A, B;
+> A B
+> - -
+> 1 1
+> 1 2
+> rows (ordered): 2
+
+DROP TABLE TEST;
+> ok
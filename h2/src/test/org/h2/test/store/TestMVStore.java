@@ -8,6 +8,7 @@
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -67,6 +68,7 @@ public void test() throws Exception {
         testRemoveMap();
         testIsEmpty();
         testOffHeapStorage();
+        testDeadChunksAfterCrash();
         testNewerWriteVersion();
         testCompactFully();
         testBackgroundExceptionListener();
@@ -681,6 +683,53 @@ private void testWriteDelay() {
         FileUtils.delete(fileName);
     }
 
+    private void testDeadChunksAfterCrash() {
+        String fileName = getBaseDir() + "/" + getTestName();
+        FileUtils.delete(fileName);
+        MVStore s = new MVStore.Builder().
+                fileName(fileName).
+                autoCommitDisabled().
+                open();
+        MVMap<Integer, Integer> m = s.openMap("data");
+        for (int i = 0; i < 100; i++) {
+            m.put(0, i);
+            s.commit();
+        }
+        s.closeImmediately();
+
+        // the dead chunks are not verified when recovering,
+        // and their space is reused
+        s = new MVStore.Builder().
+                fileName(fileName).
+                autoCommitDisabled().
+                open();
+        m = s.openMap("data");
+        for (int i = 0; i < 10; i++) {
+            m.put(1, i);
+            s.commit();
+        }
+        BitSet used = new BitSet();
+        for (Entry<String, String> e : s.getMetaMap().entrySet()) {
+            if (e.getKey().startsWith(DataUtils.META_CHUNK)) {
+                Chunk c = Chunk.fromString(e.getValue());
+                int start = (int) c.block;
+                int next = used.nextSetBit(start);
+                assertTrue(c.toString(), next < 0 || next >= start + c.len);
+                used.set(start, start + c.len);
+            }
+        }
+        s.close();
+
+        s = new MVStore.Builder().
+                fileName(fileName).
+                open();
+        m = s.openMap("data");
+        assertEquals(99, m.get(0).intValue());
+        assertEquals(9, m.get(1).intValue());
+        s.close();
+        FileUtils.delete(fileName);
+    }
+
     private void testEncryptedFile() {
         String fileName = getBaseDir() + "/" + getTestName();
         FileUtils.delete(fileName);
@@ -5,6 +5,11 @@
  */
 package org.h2.test.store;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.channels.FileChannel;
 import java.util.Map.Entry;
 import java.util.Random;
 
@@ -44,6 +49,9 @@ public boolean isEnabled() {
     @Override
     public void test() throws Exception {
         testCompact();
+        testIncrementalBackup();
+        testIncrementalBackupMovedChunks();
+        testDump();
     }
 
     private void testCompact() {
@@ -155,4 +163,182 @@ private void assertEquals(MVStore a, MVStore b) {
         }
     }
 
+
+    private void testIncrementalBackup() throws Exception {
+        String fileName = getBaseDir() + "/testBackup.h3";
+        String restored = getBaseDir() + "/testBackupRestored.h3";
+        FileUtils.createDirectories(getBaseDir());
+        FileUtils.delete(fileName);
+        FileUtils.delete(restored);
+        MVStore s = new MVStore.Builder().fileName(fileName).autoCommitDisabled().open();
+        MVMap<Integer, String> map = s.openMap("data");
+        for (int i = 0; i < 10_000; i++) {
+            map.put(i, "Hello World " + i);
+        }
+        s.commit();
+        ByteArrayOutputStream full = new ByteArrayOutputStream();
+        long v1 = s.backupIncremental(-1, full);
+        for (int i = 0; i < 10; i++) {
+            map.put(i, "Hi " + i);
+        }
+        s.commit();
+        ByteArrayOutputStream inc1 = new ByteArrayOutputStream();
+        long v2 = s.backupIncremental(v1, inc1);
+        assertTrue(v2 > v1);
+        assertTrue(inc1.size() < full.size() / 2);
+        map.remove(9_000);
+        s.openMap("other").put(1, "x");
+        s.commit();
+        ByteArrayOutputStream inc2 = new ByteArrayOutputStream();
+        long v3 = s.backupIncremental(v2, inc2);
+        s.close();
+
+        assertEquals(v1, MVStoreTool.restoreIncremental(restored, new ByteArrayInputStream(full.toByteArray())));
+        s = new MVStore.Builder().fileName(restored).readOnly().open();
+        map = s.openMap("data");
+        assertEquals(10_000, map.size());
+        assertEquals("Hello World 1", map.get(1));
+        s.close();
+        // the second incremental backup needs the chunk of the first one
+        try {
+            MVStoreTool.restoreIncremental(restored, new ByteArrayInputStream(inc2.toByteArray()));
+            fail();
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        assertEquals(v2, MVStoreTool.restoreIncremental(restored, new ByteArrayInputStream(inc1.toByteArray())));
+        assertEquals(v3, MVStoreTool.restoreIncremental(restored, new ByteArrayInputStream(inc2.toByteArray())));
+
+        MVStore original = new MVStore.Builder().fileName(fileName).readOnly().open();
+        s = new MVStore.Builder().fileName(restored).readOnly().open();
+        map = s.openMap("data");
+        assertEquals(9_999, map.size());
+        assertEquals("Hi 1", map.get(1));
+        assertNull(map.get(9_000));
+        assertEquals("x", s.openMap("other").get(1));
+        for (Entry<Object, Object> e : original.openMap("data").entrySet()) {
+            assertEquals(e.getValue(), map.get(e.getKey()));
+        }
+        s.close();
+        original.close();
+        FileUtils.delete(fileName);
+        FileUtils.delete(restored);
+    }
+
+    private void testIncrementalBackupMovedChunks() throws Exception {
+        String fileName = getBaseDir() + "/testBackupMoved.h3";
+        String restored = getBaseDir() + "/testBackupMovedRestored.h3";
+        FileUtils.createDirectories(getBaseDir());
+        FileUtils.delete(fileName);
+        FileUtils.delete(restored);
+        MVStore s = new MVStore.Builder().fileName(fileName).autoCommitDisabled().open();
+        s.setRetentionTime(0);
+        s.setVersionsToKeep(0);
+        MVMap<Integer, String> map = s.openMap("data");
+        for (int i = 0; i < 10_000; i++) {
+            map.put(i, "Hello World " + i);
+        }
+        s.commit();
+        s.openMap("other").put(1, "x");
+        s.commit();
+        // the first chunk is no longer used, so that the others can be moved
+        for (int i = 0; i < 10_000; i++) {
+            map.put(i, "Hi " + i);
+        }
+        s.commit();
+        s.openMap("other").put(2, "y");
+        s.commit();
+        ByteArrayOutputStream full = new ByteArrayOutputStream();
+        long v1 = s.backupIncremental(-1, full);
+        s.compactMoveChunks();
+        map.put(1, "Hi");
+        s.commit();
+        ByteArrayOutputStream inc = new ByteArrayOutputStream();
+        long v2 = s.backupIncremental(v1, inc);
+        s.close();
+
+        assertEquals(v1, MVStoreTool.restoreIncremental(restored, new ByteArrayInputStream(full.toByteArray())));
+        assertEquals(v2, MVStoreTool.restoreIncremental(restored, new ByteArrayInputStream(inc.toByteArray())));
+        MVStore original = new MVStore.Builder().fileName(fileName).readOnly().open();
+        s = new MVStore.Builder().fileName(restored).readOnly().open();
+        map = s.openMap("data");
+        assertEquals(10_000, map.size());
+        assertEquals("Hi", map.get(1));
+        assertEquals("x", s.openMap("other").get(1));
+        for (Entry<Object, Object> e : original.openMap("data").entrySet()) {
+            assertEquals(e.getValue(), map.get(e.getKey()));
+        }
+        s.close();
+        original.close();
+        FileUtils.delete(fileName);
+        FileUtils.delete(restored);
+    }
+
+    private void testDump() throws IOException {
+        String fileName = getBaseDir() + "/testDump.h3";
+        FileUtils.createDirectories(getBaseDir());
+        FileUtils.delete(fileName);
+        MVStore s = new MVStore.Builder().fileName(fileName).autoCommitDisabled().open();
+        MVMap<Integer, String> map = s.openMap("data");
+        for (int i = 0; i < 50; i++) {
+            for (int j = 0; j < 100; j++) {
+                map.put(i * 100 + j, "Hello World " + j);
+            }
+            s.commit();
+        }
+        s.close();
+        StringWriter writer = new StringWriter();
+        MVStoreTool.dump(fileName, writer, true);
+        // the chunks are dumped concurrently, but printed in file order
+        long last = -1;
+        int chunkCount = 0;
+        boolean inChunk = false;
+        for (String line : writer.toString().split("\n")) {
+            if (line.contains(" chunkHeader ")) {
+                assertFalse(inChunk);
+                long pos = Long.parseLong(line.substring(0, line.indexOf(' ')), 16);
+                assertTrue(pos > last);
+                last = pos;
+                chunkCount++;
+                inChunk = true;
+            } else if (line.contains(" chunkFooter ")) {
+                assertTrue(inChunk);
+                inChunk = false;
+            }
+        }
+        assertFalse(inChunk);
+        assertTrue(chunkCount >= 50);
+        assertContains(writer.toString(), "page size total: ");
+
+        // the output of a chunk that can't be read is still printed
+        s = new MVStore.Builder().fileName(fileName).autoCommitDisabled().open();
+        map = s.openMap("data");
+        for (int i = 0; i < 100; i++) {
+            map.put(i, new String(new char[1000]).replace((char) 0, 'x'));
+        }
+        s.commit();
+        s.close();
+        writer = new StringWriter();
+        MVStoreTool.dump(fileName, writer, true);
+        String lastHeader = null;
+        for (String line : writer.toString().split("\n")) {
+            if (line.contains(" chunkHeader ")) {
+                lastHeader = line;
+            }
+        }
+        long pos = Long.parseLong(lastHeader.substring(0, lastHeader.indexOf(' ')), 16);
+        try (FileChannel f = FileUtils.open(fileName, "rw")) {
+            // only the chunk header block remains
+            f.truncate(pos + 4096);
+        }
+        writer = new StringWriter();
+        try {
+            MVStoreTool.dump(fileName, writer, true);
+            fail();
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        assertContains(writer.toString(), lastHeader);
+        FileUtils.delete(fileName);
+    }
 }
@@ -497,6 +497,7 @@ private void testTwoPhaseCommit() {
         m.put("1", "Hello");
         list = ts.getOpenTransactions();
         assertEquals(1, list.size());
+        assertEquals(1, ts.getOpenTransactionCount());
         txOld = list.get(0);
         assertTrue(tx.getId() == txOld.getId());
         assertEquals("first transaction", txOld.getName());
@@ -514,6 +515,7 @@ private void testTwoPhaseCommit() {
         m.put("2", "Hello");
         list = ts.getOpenTransactions();
         assertEquals(2, list.size());
+        assertEquals(2, ts.getOpenTransactionCount());
         txOld = list.get(0);
         assertEquals(1, txOld.getId());
         assertEquals(Transaction.STATUS_OPEN, txOld.getStatus());
@@ -97,7 +97,7 @@ public void test() throws Exception {
                 getAttribute(name, "TraceLevel").toString());
         assertTrue(mbeanServer.
                 getAttribute(name, "Version").toString().startsWith("1."));
-        assertEquals(14, info.getAttributes().length);
+        assertEquals(19, info.getAttributes().length);
         result = mbeanServer.invoke(name, "listSettings", null, null).toString();
         assertContains(result, "ANALYZE_AUTO");
 
@@ -112,6 +112,8 @@ public void test() throws Exception {
         } else {
             assertContains(result, "write lock");
         }
+        assertEquals(config.mvStore ? "1" : "0", mbeanServer.
+                getAttribute(name, "OpenTransactionCount").toString());
 
         assertEquals(2, info.getOperations().length);
         assertContains(info.getDescription(), "database");
@@ -161,10 +163,15 @@ public void test() throws Exception {
                     getAttribute(name, "CacheSize").toString());
             assertTrue(0 < (Long) mbeanServer.
                     getAttribute(name, "FileReadCount"));
+            stat = conn.createStatement();
+            stat.execute("create table if not exists test(id int)");
+            stat.execute("checkpoint");
             assertTrue(0 < (Long) mbeanServer.
                     getAttribute(name, "FileWriteCount"));
             assertEquals("0", mbeanServer.
                     getAttribute(name, "FileWriteCountTotal").toString());
+            assertTrue(0 < (Long) mbeanServer.
+                    getAttribute(name, "ChunkWriteCount"));
         } else {
             assertEquals("1", mbeanServer.
                     getAttribute(name, "CacheSizeMax").toString());
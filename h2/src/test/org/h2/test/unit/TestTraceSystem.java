@@ -7,9 +7,11 @@
 
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
 import org.h2.message.TraceSystem;
 import org.h2.store.fs.FileUtils;
 import org.h2.test.TestBase;
+import org.h2.util.IOUtils;
 
 /**
  * Tests the trace system
@@ -29,6 +31,7 @@ public static void main(String... a) throws Exception {
     public void test() throws Exception {
         testTraceDebug();
         testReadOnly();
+        testWriteFile();
         testAdapter();
     }
 
@@ -61,6 +64,31 @@ private void testTraceDebug() {
         assertContains(outString, "test");
     }
 
+    private void testWriteFile() throws Exception {
+        String fileName = getBaseDir() + "/writeFile.trace.db";
+        FileUtils.delete(fileName);
+        TraceSystem ts = new TraceSystem(fileName);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ts.setSysOut(new PrintStream(out));
+        ts.setLevelSystemOut(TraceSystem.INFO);
+        ts.setLevelFile(TraceSystem.INFO);
+        ts.getTrace("test").info("hello");
+        ts.getTrace("test").error(new Exception("error"), "world");
+        ts.getTrace("test").debug("ignored");
+        ts.getTrace("test").error(new Exception("no message"), null);
+        ts.close();
+        String file = new String(IOUtils.readBytesAndClose(FileUtils.newInputStream(fileName), -1),
+                StandardCharsets.UTF_8);
+        assertTrue(file, file.matches("(?s)\\d{4}-\\d{2}-\\d{2} \\d{2}:\\d{2}:\\d{2} test: hello\\R.*"));
+        assertContains(file, " test: world");
+        assertContains(file, "java.lang.Exception: error");
+        assertContains(file, " test: null");
+        assertContains(file, "at " + getClass().getName());
+        assertFalse(file.contains("ignored"));
+        assertContains(new String(out.toByteArray()), " test: hello");
+        FileUtils.delete(fileName);
+    }
+
     private void testReadOnly() throws Exception {
         String readOnlyFile = getBaseDir() + "/readOnly.log";
         FileUtils.delete(readOnlyFile);